@@ -0,0 +1,94 @@
+package edu.wctc.singleton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Both StressTestController.buildOutput overloads on a 10-letter list,
+ * next to other ways of producing the same 10-letter String. Run with
+ * -prof gc to see how many bytes each one allocates per call:
+ *
+ *   java -jar target/benchmarks.jar BuildOutputBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildOutputBenchmark {
+    private static final int LENGTH = 10;
+
+    private StressTestController controller;
+    private List<String> list;
+    private String letter;
+    private char letterChar;
+
+    @Setup
+    public void setUp() {
+        letter = "Q";
+        letterChar = 'Q';
+        list = new ArrayList<>();
+        for (int i = 0; i < LENGTH; i++) {
+            list.add(letter);
+        }
+
+        // buildOutput() reads the controller's own sharedList; hand it a
+        // copy filled the same way version2 would
+        controller = new StressTestController(null, null, new ArrayList<>(list), null);
+    }
+
+    @Benchmark
+    public String buildOutputShared() {
+        return controller.buildOutput();
+    }
+
+    @Benchmark
+    public String buildOutputFromList() {
+        return controller.buildOutput(list);
+    }
+
+    @Benchmark
+    public String stringBuilderOverList() {
+        StringBuilder builder = new StringBuilder(LENGTH);
+        for (String s : list) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+
+    @Benchmark
+    public String stringRepeat() {
+        return letter.repeat(LENGTH);
+    }
+
+    @Benchmark
+    public String charArrayFill() {
+        char[] chars = new char[LENGTH];
+        Arrays.fill(chars, letterChar);
+        return new String(chars);
+    }
+
+    // The full version4 body: fill a list, then join it
+    @Benchmark
+    public String fillListThenJoin() {
+        List<String> fresh = new ArrayList<>();
+        for (int i = 0; i < LENGTH; i++) {
+            fresh.add(letter);
+        }
+        return controller.buildOutput(fresh);
+    }
+}
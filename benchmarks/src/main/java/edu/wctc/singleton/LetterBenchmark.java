@@ -0,0 +1,94 @@
+package edu.wctc.singleton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StressTestController.getRandomLetter and convertToLetter, next to the
+ * cheaper ways of doing the same thing. Run with -prof gc to see how many
+ * bytes each one allocates per call:
+ *
+ *   java -jar target/benchmarks.jar LetterBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LetterBenchmark {
+    private static final String[] LETTERS = new String[26];
+
+    static {
+        for (int i = 0; i < LETTERS.length; i++) {
+            LETTERS[i] = String.valueOf((char) ('A' + i));
+        }
+    }
+
+    private StressTestController controller;
+    private int number;
+
+    @Setup
+    public void setUp() {
+        // The helpers don't use the controller's other beans
+        controller = new StressTestController(null, null, new ArrayList<>(), null);
+        number = 'A' + ThreadLocalRandom.current().nextInt(26);
+    }
+
+    // --- picking a random letter, start to finish ---
+
+    @Benchmark
+    public String randomLetterAsInController() {
+        return controller.getRandomLetter();
+    }
+
+    @Benchmark
+    public String randomLetterWithThreadLocalRandom() {
+        return controller.convertToLetter(ThreadLocalRandom.current().nextInt(26) + 65);
+    }
+
+    @Benchmark
+    public String randomLetterFromTable() {
+        return LETTERS[ThreadLocalRandom.current().nextInt(26)];
+    }
+
+    @Benchmark
+    public int newRandomOnly() {
+        return new Random().nextInt(26);
+    }
+
+    @Benchmark
+    public int threadLocalRandomOnly() {
+        return ThreadLocalRandom.current().nextInt(26);
+    }
+
+    // --- turning a number into a one-letter String ---
+
+    @Benchmark
+    public String convertAsInController() {
+        return controller.convertToLetter(number);
+    }
+
+    @Benchmark
+    public String convertWithStringValueOf() {
+        return String.valueOf((char) number);
+    }
+
+    @Benchmark
+    public String convertWithCharArithmetic() {
+        return LETTERS[number - 'A'];
+    }
+}
@@ -0,0 +1,73 @@
+package edu.wctc.singleton.list;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One version1 request against a history that is already `requests`
+ * requests long: add 10 letters, then build the whole output. Each
+ * iteration starts again from the same history, so the list only grows by
+ * what one iteration adds.
+ *
+ *   java -jar target/benchmarks.jar HistoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class HistoryBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int requests;
+
+    @Param({"array-list", "run-length", "append-only"})
+    private String list;
+
+    private List<String> history;
+
+    @Setup(Level.Iteration)
+    public void fillHistory() {
+        history = switch (list) {
+            case "array-list" -> new ArrayList<>();
+            case "run-length" -> new RunLengthLetterList();
+            case "append-only" -> new AppendOnlyLetterList();
+            default -> throw new IllegalArgumentException(list);
+        };
+        Random random = new Random(42);
+        for (int request = 0; request < requests; request++) {
+            addTen(String.valueOf((char) ('A' + random.nextInt(26))));
+        }
+    }
+
+    @Benchmark
+    public String version1Request() {
+        addTen("Q");
+        // The same thing StressTestController.buildOutput() does
+        if (history instanceof LetterList letters) {
+            return letters.toLetterString();
+        }
+        return String.join("", history);
+    }
+
+    private void addTen(String letter) {
+        for (int i = 0; i < 10; i++) {
+            history.add(letter);
+        }
+    }
+}
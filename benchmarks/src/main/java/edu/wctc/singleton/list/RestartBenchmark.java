@@ -0,0 +1,65 @@
+package edu.wctc.singleton.list;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long a restarted application takes to get its /v1 history back from
+ * a MappedLetterList file holding `letters` letters: open the file, map
+ * it, and read the last letter. The file is written once per trial, in a
+ * temporary directory, and deleted afterward (the 1B case needs 1 GB of
+ * disk).
+ *
+ *   java -jar target/benchmarks.jar RestartBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class RestartBenchmark {
+    @Param({"10000000", "100000000", "1000000000"})
+    private int letters;
+
+    private Path file;
+
+    @Setup
+    public void writeHistory() throws IOException {
+        file = Files.createTempFile("restart-benchmark", ".letters");
+        Files.delete(file);
+        try (MappedLetterList history = new MappedLetterList(file)) {
+            // Runs of 10, like version1 writes them
+            for (int written = 0; written < letters; written += 10) {
+                history.appendLetters((char) ('A' + written / 10 % 26), Math.min(10, letters - written));
+            }
+        }
+    }
+
+    @TearDown
+    public void deleteHistory() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public char restart() throws IOException {
+        try (MappedLetterList history = new MappedLetterList(file)) {
+            return history.charAt(history.size() - 1);
+        }
+    }
+}
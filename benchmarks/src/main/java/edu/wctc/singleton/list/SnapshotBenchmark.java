@@ -0,0 +1,88 @@
+package edu.wctc.singleton.list;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readers taking a consistent snapshot of the /v1 history while writers
+ * keep adding 10 letters at a time. With "synchronized", a snapshot means
+ * copying the list under its lock, which also holds up the writers; with
+ * "persistent", it is one volatile read. The history is cleared whenever
+ * it reaches `historySize` letters so that it stays the same size.
+ *
+ *   java -jar target/benchmarks.jar SnapshotBenchmark
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+    @Param({"1000", "100000"})
+    private int historySize;
+
+    @Param({"synchronized", "persistent"})
+    private String list;
+
+    private final Object lock = new Object();
+    private List<String> synchronizedHistory;
+    private PersistentLetterList persistentHistory;
+
+    @Setup
+    public void createHistory() {
+        synchronizedHistory = new ArrayList<>();
+        persistentHistory = new PersistentLetterList();
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(2)
+    public String read() {
+        if (list.equals("persistent")) {
+            List<String> snapshot = persistentHistory.snapshot();
+            return snapshot.isEmpty() ? null : snapshot.get(snapshot.size() - 1);
+        }
+        List<String> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(synchronizedHistory);
+        }
+        return snapshot.isEmpty() ? null : snapshot.get(snapshot.size() - 1);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(2)
+    public void write() {
+        if (list.equals("persistent")) {
+            if (persistentHistory.size() >= historySize) {
+                persistentHistory.clear();
+            }
+            persistentHistory.appendLetters('Q', 10);
+            return;
+        }
+        synchronized (lock) {
+            if (synchronizedHistory.size() >= historySize) {
+                synchronizedHistory.clear();
+            }
+            for (int i = 0; i < 10; i++) {
+                synchronizedHistory.add("Q");
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.wctc.singleton.log;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What logging one response costs the request thread, with four request
+ * threads logging at once. Both logs write to a stream that throws the
+ * bytes away, so this measures the locking and formatting, not the
+ * console. The async log drops lines once its buffer is full, and the
+ * drops count as finished calls here.
+ *
+ *   java -jar target/benchmarks.jar RequestLogBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RequestLogBenchmark {
+    @Param({"printf", "async"})
+    private String log;
+
+    // A version2-sized response and a /v1 response after 10,000 requests
+    @Param({"10", "100000"})
+    private int messageLength;
+
+    private RequestLog requestLog;
+    private String message;
+
+    @Setup
+    public void createLog() {
+        message = "Q".repeat(messageLength);
+        requestLog = switch (log) {
+            case "printf" -> new PrintfRequestLog(new PrintStream(OutputStream.nullOutputStream(), true));
+            case "async" -> new AsyncRequestLog(OutputStream.nullOutputStream(), 8192, 1.0, 200);
+            default -> throw new IllegalArgumentException(log);
+        };
+    }
+
+    @TearDown
+    public void closeLog() throws Exception {
+        if (requestLog instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Benchmark
+    public void logResponse() {
+        requestLog.log(12345678, message);
+    }
+}
@@ -0,0 +1,69 @@
+package edu.wctc.singleton.state;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The clear-fill-join critical section from version3, with no sleep, run
+ * by every benchmark thread at once against one shared strategy. This
+ * measures nothing but the cost of the guard: with the sleep left in, every
+ * strategy would just measure the sleep.
+ *
+ * Run it through ContentionRunner to sweep the thread count; run it
+ * directly for a single count:
+ *
+ *   java -jar target/benchmarks.jar ContentionBenchmark -t 8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentionBenchmark {
+    @Param({"synchronized", "reentrant-lock", "fair-lock", "stamped-optimistic", "lock-free-queue", "thread-local"})
+    private String strategyName;
+
+    private SharedStateStrategy strategy;
+
+    @Setup
+    public void createStrategy() {
+        strategy = switch (strategyName) {
+            case "synchronized" -> new SynchronizedStrategy();
+            case "reentrant-lock" -> new ReentrantLockStrategy();
+            case "fair-lock" -> new FairLockStrategy();
+            case "stamped-optimistic" -> new StampedOptimisticStrategy();
+            case "lock-free-queue" -> new LockFreeQueueStrategy();
+            case "thread-local" -> new ThreadLocalStrategy();
+            default -> throw new IllegalArgumentException(strategyName);
+        };
+    }
+
+    /**
+     * Each benchmark thread fills with its own letter, like requests that
+     * each picked a different random letter.
+     */
+    @State(Scope.Thread)
+    public static class Letter {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        private final String value = String.valueOf((char) ('A' + NEXT.getAndIncrement() % 26));
+    }
+
+    @Benchmark
+    public String fill(Letter letter) {
+        return strategy.fill(letter.value, 10, 0);
+    }
+}
@@ -0,0 +1,85 @@
+package edu.wctc.singleton.state;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs ContentionBenchmark once for each thread count and prints one
+ * table: a row per strategy, and for each thread count the throughput and
+ * the 99th percentile time of a single clear-fill-join. Throughput that
+ * stops growing (or drops) as threads are added means the guard is the
+ * bottleneck; a p99 that climbs means some threads wait much longer than
+ * others to get in.
+ *
+ *   java -cp target/benchmarks.jar edu.wctc.singleton.state.ContentionRunner
+ *
+ * Any JMH options given (e.g. -wi 1 -i 3 -p strategyName=synchronized)
+ * are passed along to every run. The thread counts only mean something up
+ * to the number of cores the machine actually has.
+ */
+public class ContentionRunner {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+
+    public static void main(String[] args) throws Exception {
+        Options commandLine = new CommandLineOptions(args);
+
+        // strategy -> thread count -> {ops/us, p99 us}
+        Map<String, Map<Integer, double[]>> table = new TreeMap<>();
+
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(ContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            for (RunResult run : run(options)) {
+                String strategy = run.getParams().getParam("strategyName");
+                double[] cell = table.computeIfAbsent(strategy, k -> new TreeMap<>())
+                        .computeIfAbsent(threads, k -> new double[2]);
+                Result<?> result = run.getPrimaryResult();
+                switch (run.getParams().getMode()) {
+                    case Throughput -> cell[0] = result.getScore();
+                    case SampleTime -> cell[1] = result.getStatistics().getPercentile(99);
+                    default -> { }
+                }
+            }
+        }
+
+        print(table);
+    }
+
+    private static Collection<RunResult> run(Options options) throws RunnerException {
+        return new Runner(options).run();
+    }
+
+    private static void print(Map<String, Map<Integer, double[]>> table) {
+        System.out.println();
+        System.out.println("ops/us and p99 us per clear-fill-join, by thread count");
+        System.out.printf("%-20s", "");
+        for (int threads : THREAD_COUNTS) {
+            System.out.printf(" %18s", threads + (threads == 1 ? " thread" : " threads"));
+        }
+        System.out.println();
+        for (Map.Entry<String, Map<Integer, double[]>> row : table.entrySet()) {
+            System.out.printf("%-20s", row.getKey());
+            for (int threads : THREAD_COUNTS) {
+                double[] cell = row.getValue().get(threads);
+                if (cell == null) {
+                    System.out.printf(" %18s", "-");
+                } else {
+                    System.out.printf(" %8.2f %9.3f", cell[0], cell[1]);
+                }
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package edu.wctc.singleton.timer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long it takes to get N timers pending, /v4 style (about 500 ms out),
+ * with each DelayScheduler. Every iteration starts from an empty
+ * scheduler, so the last timers scheduled are competing with almost N
+ * others already pending. Divide the score by N for the cost per timer.
+ *
+ *   java -jar target/benchmarks.jar TimerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class TimerBenchmark {
+    private static final Runnable NOTHING = () -> { };
+
+    @Param({"10000", "100000", "1000000"})
+    private int pending;
+
+    @Param({"scheduled-executor", "hashed-wheel"})
+    private String timer;
+
+    private DelayScheduler scheduler;
+
+    @Setup(Level.Iteration)
+    public void createScheduler() {
+        scheduler = switch (timer) {
+            case "scheduled-executor" -> new ScheduledExecutorDelayScheduler();
+            case "hashed-wheel" -> new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 1024);
+            default -> throw new IllegalArgumentException(timer);
+        };
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeScheduler() throws Exception {
+        ((AutoCloseable) scheduler).close();
+    }
+
+    @Benchmark
+    public void scheduleFromOneThread() {
+        scheduleShare(1);
+    }
+
+    // Four request threads scheduling at once, each adding a quarter of the timers
+    @Benchmark
+    @Threads(4)
+    public void scheduleFromFourThreads() {
+        scheduleShare(4);
+    }
+
+    private void scheduleShare(int threads) {
+        int count = pending / threads;
+        for (int i = 0; i < count; i++) {
+            // Spread the deadlines over 450-550 ms, like a crowd of /v4 requests
+            scheduler.schedule(NOTHING, 450 + i % 100, TimeUnit.MILLISECONDS);
+        }
+    }
+}
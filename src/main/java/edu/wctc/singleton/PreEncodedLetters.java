@@ -0,0 +1,47 @@
+package edu.wctc.singleton;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A correct response is always 10 copies of one letter, so there are only
+ * 26 of them. This class builds all 26 once, already encoded as bytes, and
+ * writes them straight to an output stream. Serving one takes no Random,
+ * no Strings, no list and no encoding step, so a request allocates next to
+ * nothing.
+ *
+ * The arrays are never handed out, which is what keeps them immutable even
+ * though Java arrays can't be made read-only.
+ */
+public final class PreEncodedLetters {
+    public static final int LETTER_COUNT = 26;
+    public static final int LENGTH = 10;
+
+    private static final byte[][] PAYLOADS = new byte[LETTER_COUNT][];
+
+    static {
+        for (int i = 0; i < LETTER_COUNT; i++) {
+            PAYLOADS[i] = String.valueOf((char) ('A' + i)).repeat(LENGTH).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private PreEncodedLetters() {
+    }
+
+    /**
+     * @return The index (0-25) of a random letter
+     */
+    public static int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(LETTER_COUNT);
+    }
+
+    /**
+     * Writes the 10-letter payload for one letter.
+     * @param index 0 for AAAAAAAAAA, up to 25 for ZZZZZZZZZZ
+     */
+    public static void write(OutputStream out, int index) throws IOException {
+        out.write(PAYLOADS[index]);
+    }
+}
@@ -1,49 +1,83 @@
 package edu.wctc.singleton;
 
-import java.io.IOException;
+import edu.wctc.singleton.spammer.LoadGenerator;
+import edu.wctc.singleton.spammer.RunRecorder;
+import edu.wctc.singleton.spammer.RunReport;
+import edu.wctc.singleton.spammer.SpammerOptions;
+import edu.wctc.singleton.spammer.Transport;
+
+import java.net.URI;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.TreeMap;
 
+/**
+ * Sends a burst of requests to one version of StressTestController.
+ * By default the requests go out through an in-process HTTP client; run
+ * with --transport=curl to use the original one-curl-process-per-request
+ * approach instead, and with --rate=N to pace the requests at N per second
+ * (see LoadGenerator for why that matters). At most --max-in-flight
+ * requests are outstanding at once, and --duration=S makes each run stop
+ * after S seconds even if it has not sent every request yet. A request
+ * with no response after --timeout=S seconds is counted as an error.
+ *
+ * After every run it prints a latency summary and how many responses were
+ * correct, too long, mixed, or errors; on exit it prints the most recent run
+ * of each endpoint side by side. Give --suffix a comma-separated list to
+ * run several endpoints back to back, e.g. version 5 with
+ * --suffix=/unsynchronized,/synchronized,/thread-local
+ *
+ * Add --echo=true to also print every body.
+ */
 public class RequestSpammer {
     public static void main(String[] args) throws InterruptedException {
+        SpammerOptions options = SpammerOptions.parse(args);
         Scanner keyboard = new Scanner(System.in);
+        Map<String, RunReport> latestReports = new TreeMap<>();
 
-        while (true) {
-            System.out.print("\nWhich version are you testing? (1-4, or 0 to quit): ");
-            int version = Integer.parseInt(keyboard.nextLine());
-
-            if (version == 0)
-                break;
-
-            System.out.print("How many requests would you like to send?: ");
-            int requests = Integer.parseInt(keyboard.nextLine());
-
-            ExecutorService es = Executors.newCachedThreadPool();
-
-            // Start up X threads that will all hit Spring Boot together
-            for (int i = 0; i < requests; i++) {
-                es.execute(() -> {
-                    try {
-                        String command = "curl -X GET http://localhost:8080/v" + version;
-                        Process process = Runtime.getRuntime().exec(command);
-                        System.out.println(new String(process.getInputStream().readAllBytes()));
-                        process.getInputStream().close();
-                        process.destroy();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                        throw new RuntimeException(e);
-                    }
-                });
-            }
-            es.shutdown();
+        try (Transport transport = Transport.create(options.getTransport(), options.isEcho(), options.getTimeout())) {
+            LoadGenerator generator = new LoadGenerator(transport, options.getRate(), options.getMaxInFlight());
+
+            while (true) {
+                System.out.print("\nWhich version are you testing? (1-5, or 0 to quit): ");
+                int version = Integer.parseInt(keyboard.nextLine());
+
+                if (version == 0)
+                    break;
+
+                if (options.getDuration().isZero()) {
+                    System.out.print("How many requests would you like to send?: ");
+                } else {
+                    System.out.printf("How many requests would you like to send? (0 = as many as fit in %d seconds): ",
+                            options.getDuration().toSeconds());
+                }
+                int requests = Integer.parseInt(keyboard.nextLine());
 
-            // Make the main thread wait for all X new threads to complete before
-            // proceeding with another iteration of the while loop
-            es.awaitTermination(1, TimeUnit.MINUTES);
+                if (requests <= 0 && options.getDuration().isZero()) {
+                    System.out.println("Enter a number of requests, or start with --duration to run for a set time");
+                    continue;
+                }
+
+                // With several --suffix values, each endpoint gets its own run
+                for (URI uri : options.endpoints(version)) {
+                    // Send X requests that will all hit Spring Boot together (or
+                    // spaced out at the requested rate), then wait for them to
+                    // finish before proceeding with the next run
+                    RunRecorder recorder = new RunRecorder(uri.getPath(), options.isEcho());
+                    LoadGenerator.Result result = generator.run(uri, requests, options.getDuration(),
+                            options.getDrainTimeout(), recorder);
+
+                    RunReport report = recorder.report(result.incomplete());
+                    report.print(System.out);
+                    latestReports.put(uri.getPath(), report);
+                }
+            }
         }
 
+        if (!latestReports.isEmpty()) {
+            System.out.println("\nLatest run of each endpoint:");
+            RunReport.printAll(System.out, latestReports.values());
+        }
         System.out.println("DONE");
     }
 }
@@ -1,12 +1,33 @@
 package edu.wctc.singleton;
 
+import edu.wctc.singleton.state.SharedStateStrategies;
+import edu.wctc.singleton.timer.DelayScheduler;
+import edu.wctc.singleton.list.LetterList;
+import edu.wctc.singleton.log.RequestLog;
+import edu.wctc.singleton.timing.RequestPhases;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 public class StressTestController {
@@ -21,15 +42,39 @@ public class StressTestController {
      * SINGLE object.
      *
      * This constructor exists so that we can see the moment at startup when
-     * Spring creates the bean.
+     * Spring creates the bean. Spring also passes in the other beans this
+     * controller needs (see the takeaway in version4's comments), and the
+     * shared list itself, so that its implementation can be swapped with
+     * the singleton.shared-list property (see SharedListConfiguration).
      */
-    public StressTestController() {
+    public StressTestController(DelayScheduler delayScheduler, SharedStateStrategies strategies,
+                                @Qualifier("sharedList") List<String> sharedList, RequestLog requestLog) {
+        this.delayScheduler = delayScheduler;
+        this.strategies = strategies;
+        this.sharedList = sharedList;
+        this.requestLog = requestLog;
         System.out.println("One StressTestController bean has been created!");
     }
 
+    // Another bean, shared by all requests. That's fine: it's how the
+    // async versions wait without holding on to a thread.
+    private final DelayScheduler delayScheduler;
+    private final SharedStateStrategies strategies;
+
+    // Where each handler reports what it returned. By default this hands
+    // the line to a background thread instead of printing it right here
+    // (see RequestLogConfiguration), so the console doesn't become the
+    // one thing every request has to wait its turn for.
+    private final RequestLog requestLog;
+
+    // List versions start over when the application does, so each run
+    // gets its own ETag prefix; otherwise an ETag saved before a restart
+    // could match different letters after it
+    private static final String STATE_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     // Because StressTestController is a singleton bean, all requests will
     // be using this same list, which is an instance field of the object
-    private List<String> sharedList = new ArrayList<>();
+    private final List<String> sharedList;
 
     /**
      * This version places letters in the shared list, concatenates, then
@@ -55,11 +100,117 @@ public class StressTestController {
         // This hashcode of the controller is like its unique object
         // ID. We print it to demonstrate that the same controller
         // object is being used for each request.
-        System.out.printf("%d: %s%n", this.hashCode(), returnValue);
+        requestLog.log(this.hashCode(), returnValue);
 
         return returnValue;
     }
 
+    /**
+     * Version 1 again, but without ever building the output as a String.
+     * Once the list holds millions of letters, version1 creates a String
+     * that many characters long for every request, and then a byte array
+     * just as big to send it, all of it garbage as soon as the response is
+     * sent. Here the letters are written to the response a chunk at a time,
+     * straight from the list, so each request needs the same small amount
+     * of memory no matter how long the history gets.
+     *
+     * The list keeps being shared while the response is written, so a
+     * request to /v2 or /v3 in the meantime can still cut it short.
+     *
+     * @return Every letter added so far, streamed
+     */
+    @GetMapping("/v1/stream")
+    public ResponseEntity<StreamingResponseBody> version1Stream() {
+        String letter = getRandomLetter();
+
+        // Add 10 of that letter to the shared list
+        for (int i = 0; i < 10; i++) {
+            sharedList.add(letter);
+        }
+
+        // Send the letters that are there now, even if more get added
+        // while this response is being written
+        int length = sharedList.size();
+
+        requestLog.log(this.hashCode(), length + " letters");
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> LetterList.write(sharedList, out, 0, length));
+    }
+
+    /**
+     * Shows what version1 has built up so far, without adding anything.
+     * With the default ArrayList this reads the list while other requests
+     * may be adding to it, so under load it can fail the same way version3
+     * does. With singleton.shared-list=persistent, the list hands out an
+     * unchanging snapshot of itself in a single read, and this never
+     * fails, never locks and never holds up a writer.
+     *
+     * This is meant to be polled, so it tries hard not to send the same
+     * letters twice:
+     *
+     * - The ETag header holds the list's version. A client that sends it
+     *   back in If-None-Match gets "304 Not Modified" and an empty body if
+     *   nothing has changed since; the letters aren't even looked at.
+     * - A Range header (e.g. "bytes=5000-") asks for only part of the
+     *   letters, so a client that already has the first 5000 gets just the
+     *   ones added since, with "206 Partial Content".
+     *
+     * Only a LetterList has a version, so the ArrayList gets no ETag.
+     *
+     * @return Every letter added so far, or the requested range of them
+     */
+    @GetMapping("/v1/state")
+    public ResponseEntity<StreamingResponseBody> version1State(
+            WebRequest request, @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        // The ETag, the length and the body all come from one reading of
+        // the list, so they always agree with each other. With the
+        // persistent list that reading is a snapshot nobody can change, so
+        // even a /v2 clearing the list halfway through can't break it.
+        // checkNotModified also puts the ETag header on the response.
+        LetterList.Snapshot state = sharedList instanceof LetterList letters ? letters.freeze() : null;
+        if (state != null && request.checkNotModified("\"" + STATE_EPOCH + "-" + state.version() + "\"")) {
+            return null;
+        }
+
+        int length = state != null ? state.size() : sharedList.size();
+        List<HttpRange> ranges = parseRanges(range);
+        // More than one range would need a multipart response; it's
+        // allowed to just send everything instead
+        if (ranges.size() != 1) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .contentLength(length)
+                    .body(out -> writeState(state, out, 0, length));
+        }
+
+        int from = (int) Math.min(ranges.get(0).getRangeStart(length), length);
+        int to = (int) Math.min(ranges.get(0).getRangeEnd(length) + 1, length);
+        if (from >= to) {
+            // Starts at or past the end, e.g. nothing new since the client's last poll
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + from + "-" + (to - 1) + "/" + length)
+                .contentType(MediaType.TEXT_PLAIN)
+                .contentLength(to - from)
+                .body(out -> writeState(state, out, from, to));
+    }
+
+    // Writes from the snapshot if there is one, or else straight from the list
+    private void writeState(LetterList.Snapshot state, OutputStream out, int from, int to) throws IOException {
+        if (state != null) {
+            state.writeTo(out, from, to);
+        } else {
+            LetterList.write(sharedList, out, from, to);
+        }
+    }
+
     /**
      * This version clears the shared list before adding its 10 letters.
      * This will probably give the expected result 99.999% of the time
@@ -85,7 +236,7 @@ public class StressTestController {
         // This hashcode of the controller is like its unique object
         // ID. We print it to demonstrate that the same controller
         // object is being used for each request.
-        System.out.printf("%d: %s%n", this.hashCode(), returnValue);
+        requestLog.log(this.hashCode(), returnValue);
 
         return returnValue;
     }
@@ -117,11 +268,7 @@ public class StressTestController {
         }
 
         // Add a tiny delay (0.05 seconds) before creating the return value
-        try {
-            Thread.sleep(50);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        RequestPhases.sleep(50, sharedList);
 
         // Join letters together and return the string
         String returnValue = buildOutput();
@@ -129,7 +276,7 @@ public class StressTestController {
         // This hashcode of the controller is like its unique object
         // ID. We print it to demonstrate that the same controller
         // object is being used for each request.
-        System.out.printf("%d: %s%n", this.hashCode(), returnValue);
+        requestLog.log(this.hashCode(), returnValue);
 
         return returnValue;
     }
@@ -158,7 +305,8 @@ public class StressTestController {
     @GetMapping("/v4")
     @ResponseBody
     public String version4() {
-        List<String> nonSharedList = new ArrayList<>();
+        // A brand new list for every call; RequestPhases.local only times it
+        List<String> nonSharedList = RequestPhases.local(new ArrayList<>());
 
         String letter = getRandomLetter();
 
@@ -168,11 +316,7 @@ public class StressTestController {
         }
 
         // Add a giant delay (0.5 seconds) before creating the return value
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        RequestPhases.sleep(500, nonSharedList);
 
         // Join letters together and return the string
         String returnValue = buildOutput(nonSharedList);
@@ -180,20 +324,155 @@ public class StressTestController {
         // This hashcode of the controller is like its unique object
         // ID. We print it to demonstrate that the same controller
         // object is being used for each request.
-        System.out.printf("%d: %s%n", this.hashCode(), returnValue);
+        requestLog.log(this.hashCode(), returnValue);
+
+        return returnValue;
+    }
+
+    /**
+     * The same as version3, except for how it waits. Instead of sleeping,
+     * this method returns right away with a CompletableFuture, and Tomcat's
+     * worker thread goes off to serve somebody else. The shared timer
+     * finishes the request 0.05 seconds later. No thread is blocked during
+     * the delay, but 'sharedList' is still shared, so the same mix-ups as
+     * version3 can happen.
+     *
+     * @return A 10-letter string (most of the time), a little later
+     */
+    @GetMapping("/v3/async")
+    @ResponseBody
+    public CompletableFuture<String> version3Async() {
+        sharedList.clear();
+
+        String letter = getRandomLetter();
+
+        // Add 10 of that letter to the shared list
+        for (int i = 0; i < 10; i++) {
+            sharedList.add(letter);
+        }
+
+        // Finish up after a tiny delay (0.05 seconds)
+        return delayScheduler.after(50, TimeUnit.MILLISECONDS).thenApply(ignored -> {
+            // Join letters together and return the string
+            String returnValue = buildOutput();
+
+            requestLog.log(this.hashCode(), returnValue);
+
+            return returnValue;
+        });
+    }
+
+    /**
+     * The same as version4, except that it waits the way version3Async
+     * does. Each request still gets its own list, so it is always correct,
+     * and thousands of them can be waiting at once without needing
+     * thousands of threads.
+     *
+     * @return A 10-letter string, always, a little later
+     */
+    @GetMapping("/v4/async")
+    @ResponseBody
+    public CompletableFuture<String> version4Async() {
+        // A brand new list for every call; RequestPhases.local only times it
+        List<String> nonSharedList = RequestPhases.local(new ArrayList<>());
+
+        String letter = getRandomLetter();
+
+        // Add 10 of that letter to the non-shared list
+        for (int i = 0; i < 10; i++) {
+            nonSharedList.add(letter);
+        }
+
+        // Finish up after a giant delay (0.5 seconds)
+        return delayScheduler.after(500, TimeUnit.MILLISECONDS).thenApply(ignored -> {
+            // Join letters together and return the string
+            String returnValue = buildOutput(nonSharedList);
+
+            requestLog.log(this.hashCode(), returnValue);
+
+            return returnValue;
+        });
+    }
+
+    /**
+     * Version 4 again, trimmed down to what a correct answer actually
+     * needs. There are only 26 possible correct responses, so instead of
+     * building a list and a String for every request, this picks one of 26
+     * ready-made byte arrays (see PreEncodedLetters) and writes it directly
+     * to the response. Nothing is printed either, since formatting the log
+     * line would allocate more than everything else here combined.
+     */
+    @GetMapping("/v4/preencoded")
+    public void version4PreEncoded(HttpServletResponse response) throws IOException {
+        int letter = PreEncodedLetters.randomIndex();
+
+        // Same giant delay (0.5 seconds) as version4
+        RequestPhases.sleep(500, null);
+
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setContentLength(PreEncodedLetters.LENGTH);
+        PreEncodedLetters.write(response.getOutputStream(), letter);
+    }
+
+    /**
+     * Version 5 repeats version3's clear-fill-join sequence, but on a list
+     * guarded by the named strategy (see the classes in the 'state'
+     * package): /v5/unsynchronized, /v5/synchronized, /v5/reentrant-lock
+     * and so on. Load testing each one shows which of them actually fix
+     * the problem, and what each fix costs in throughput.
+     *
+     * @param strategy The name of the SharedStateStrategy to use
+     * @param delay Milliseconds to pause between filling and joining (default 0)
+     * @return A 10-letter string, if the strategy is doing its job
+     */
+    @GetMapping("/v5/{strategy}")
+    @ResponseBody
+    public String version5(@PathVariable String strategy, @RequestParam(defaultValue = "0") long delay) {
+        String letter = getRandomLetter();
+
+        String returnValue = strategies.get(strategy).fill(letter, 10, delay);
+
+        requestLog.log(this.hashCode(), returnValue);
 
         return returnValue;
     }
 
+    /**
+     * @return The names that can be used with /v5/{strategy}, one per line
+     */
+    @GetMapping("/v5")
+    @ResponseBody
+    public String version5Strategies() {
+        return String.join("\n", strategies.getNames());
+    }
+
+    // A Range header that can't be parsed is ignored, as if it weren't there
+    private static List<HttpRange> parseRanges(String range) {
+        if (range == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    // The helpers below have no access modifier (package-private) rather
+    // than 'private' so that the JMH benchmarks in benchmarks/, which live
+    // in this same package, can measure them directly.
+
     /**
      * A silly helper method, simply to illustrate the call stack.
      * @return A randomly generated capital letter
      */
-    private String getRandomLetter() {
-        // Pick a random letter of the alphabet (ASCII char 65 - 91)
-        Random random = new Random();
-        int number = random.nextInt(26) + 65;
-        return convertToLetter(number);
+    String getRandomLetter() {
+        return RequestPhases.letter(() -> {
+            // Pick a random letter of the alphabet (ASCII char 65 - 91)
+            Random random = new Random();
+            int number = random.nextInt(26) + 65;
+            return convertToLetter(number);
+        });
     }
 
     /**
@@ -201,7 +480,7 @@ public class StressTestController {
      * @param num An integer between 65 and 91 (inclusive)
      * @return The ASCII character with the given code
      */
-    private String convertToLetter(int num) {
+    String convertToLetter(int num) {
         Character c = (char) num;
         return c.toString();
     }
@@ -211,9 +490,15 @@ public class StressTestController {
      * to 'sharedList' to do its operations. But it won't
      * work with version 4.
      *
+     * A LetterList can produce the joined String itself, without looking
+     * at each element as a separate String first.
+     *
      * @return The contents of the list concatenated together
      */
-    private String buildOutput() {
+    String buildOutput() {
+        if (sharedList instanceof LetterList letters) {
+            return letters.toLetterString();
+        }
         return String.join("", sharedList);
     }
 
@@ -225,7 +510,7 @@ public class StressTestController {
      *
      * @return The contents of the list concatenated together
      */
-    private String buildOutput(List<String> theList) {
+    String buildOutput(List<String> theList) {
         return String.join("", theList);
     }
 }
@@ -0,0 +1,42 @@
+package edu.wctc.singleton;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Normally Tomcat hands each request to one of its 200 worker threads.
+ * When version3 or version4 sleeps, that worker sits there doing nothing,
+ * and once all 200 are asleep every other request has to wait in line.
+ *
+ * With singleton.virtual-threads.enabled=true, Tomcat instead starts a new
+ * virtual thread for every request. A sleeping virtual thread gives its
+ * carrier (platform) thread back to the JVM, so thousands of requests can
+ * be asleep at once. Virtual threads need Java 21; build and run with the
+ * "java21" Maven profile, which also turns this setting on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "singleton.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutorCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // Looked up by name so the project still compiles for Java 17, where
+    // the method does not exist
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("singleton.virtual-threads.enabled=true needs Java 21 or newer, but this is Java "
+                    + Runtime.version().feature(), e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package edu.wctc.singleton.list;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Keeps the letters already joined: one growing byte array holding
+ * exactly the output version1 would build, one Latin-1 byte per letter.
+ * Adding 10 letters writes 10 bytes, and turning the whole history into a
+ * String is a single array copy instead of String.join looking at every
+ * element. Nothing is ever rebuilt from scratch.
+ */
+public class AppendOnlyLetterList extends LetterList {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void appendLetters(char letter, int count) {
+        if (letter > 0xFF) {
+            throw new IllegalArgumentException("Only Latin-1 letters can be stored, not '" + letter + "'");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        int newSize = Math.addExact(size, count);
+        changed();
+        if (newSize > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(newSize, buffer.length + (buffer.length >> 1)));
+        }
+        Arrays.fill(buffer, size, newSize, (byte) letter);
+        size = newSize;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, size);
+        return (char) (buffer[index] & 0xFF);
+    }
+
+    @Override
+    public String toLetterString() {
+        return new String(buffer, 0, size, StandardCharsets.ISO_8859_1);
+    }
+
+    // The letters are already bytes, so they're written straight from the
+    // buffer, a chunk at a time, without copying them anywhere first
+    @Override
+    public void writeTo(OutputStream out, int from, int to) throws IOException {
+        byte[] bytes = buffer;
+        Objects.checkFromToIndex(from, to, Math.min(size, bytes.length));
+        for (int start = from; start < to; start += CHUNK_SIZE) {
+            out.write(bytes, start, Math.min(CHUNK_SIZE, to - start));
+        }
+    }
+
+    @Override
+    public void clear() {
+        changed();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,145 @@
+package edu.wctc.singleton.list;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stores the letters one Latin-1 byte each, in equal-sized ByteBuffer
+ * chunks. When the last chunk is full, another one is added; nothing
+ * already written is ever copied to a bigger array, the way ArrayList and
+ * AppendOnlyLetterList have to when they grow.
+ *
+ * Where the chunks come from is up to the subclass: newChunk() could
+ * allocate memory outside the Java heap, or map part of a file.
+ */
+public abstract class ChunkedLetterList extends LetterList {
+    private final int chunkSize;
+    private final int chunkShift;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int size;
+
+    /**
+     * @param chunkSize Bytes per chunk; must be a power of two
+     */
+    protected ChunkedLetterList(int chunkSize) {
+        if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a power of two, not " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+    }
+
+    /**
+     * @param index Which chunk this is: 0 for the first, and so on
+     * @return A buffer with room for chunkSize bytes
+     */
+    protected abstract ByteBuffer newChunk(int index, int chunkSize) throws IOException;
+
+    @Override
+    public void appendLetters(char letter, int count) {
+        if (letter > 0xFF) {
+            throw new IllegalArgumentException("Only Latin-1 letters can be stored, not '" + letter + "'");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        int newSize = Math.addExact(size, count);
+        changed();
+        for (int position = size; position < newSize; position++) {
+            chunkAt(position).put(offset(position), (byte) letter);
+        }
+        size = newSize;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, size);
+        return (char) (chunks.get(index >>> chunkShift).get(offset(index)) & 0xFF);
+    }
+
+    @Override
+    public String toLetterString() {
+        byte[] bytes = new byte[size];
+        copyTo(0, bytes, size);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    protected void copyTo(int from, byte[] dest, int count) {
+        Objects.checkFromIndexSize(from, count, size);
+        int copied = 0;
+        while (copied < count) {
+            int position = from + copied;
+            int n = Math.min(chunkSize - offset(position), count - copied);
+            chunks.get(position >>> chunkShift).get(offset(position), dest, copied, n);
+            copied += n;
+        }
+    }
+
+    // Chunks are kept when the list is cleared, and filled again from the start
+    @Override
+    public void clear() {
+        changed();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return How many chunks have been created so far
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Tells the list it already holds this many letters, e.g. ones that a
+     * subclass found in an existing file.
+     * @throws IllegalArgumentException If the size is negative or too big
+     *                                  for an int index
+     */
+    protected void restoreSize(long restoredSize) {
+        if (restoredSize < 0 || restoredSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A list can't hold " + restoredSize + " letters");
+        }
+        // As a long, since the chunks can add up to more than an int holds
+        while ((long) chunks.size() << chunkShift < restoredSize) {
+            addChunk();
+        }
+        changed();
+        size = (int) restoredSize;
+    }
+
+    // Returns the chunk holding this position, adding one if it's just
+    // past the end of the last chunk
+    private ByteBuffer chunkAt(int position) {
+        int index = position >>> chunkShift;
+        return index < chunks.size() ? chunks.get(index) : addChunk();
+    }
+
+    private ByteBuffer addChunk() {
+        try {
+            ByteBuffer chunk = newChunk(chunks.size(), chunkSize);
+            chunks.add(chunk);
+            return chunk;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not add chunk " + chunks.size(), e);
+        }
+    }
+
+    private int offset(int position) {
+        return position & (chunkSize - 1);
+    }
+}
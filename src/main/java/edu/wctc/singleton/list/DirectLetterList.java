@@ -0,0 +1,30 @@
+package edu.wctc.singleton.list;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the letters outside the Java heap, in direct ByteBuffers. The
+ * garbage collector only sees a few small ByteBuffer objects, one per
+ * chunk, instead of millions of elements it has to trace on every full
+ * collection, so the history can grow into the gigabytes without making
+ * GC pauses any longer.
+ *
+ * How much direct memory the JVM may use is set with
+ * -XX:MaxDirectMemorySize; it defaults to the maximum heap size.
+ */
+public class DirectLetterList extends ChunkedLetterList {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    public DirectLetterList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public DirectLetterList(int chunkSize) {
+        super(chunkSize);
+    }
+
+    @Override
+    protected ByteBuffer newChunk(int index, int chunkSize) {
+        return ByteBuffer.allocateDirect(chunkSize);
+    }
+}
@@ -0,0 +1,208 @@
+package edu.wctc.singleton.list;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A List of one-letter Strings that doesn't actually store Strings. Every
+ * element version1 adds is a single letter, so an implementation can keep
+ * just the characters (or something even smaller) and turn them back into
+ * Strings only when someone asks.
+ *
+ * Like ArrayList, these lists are not thread-safe, and they use the same
+ * fail-fast modCount check: a thread that iterates while another thread
+ * adds still gets a ConcurrentModificationException, so version3 misbehaves
+ * exactly the way it always did.
+ */
+public abstract class LetterList extends AbstractList<String> {
+    /**
+     * How many bytes writeTo sends per write() call. This is also all the
+     * memory it needs, however long the list is.
+     */
+    public static final int CHUNK_SIZE = 8192;
+
+    // Strings for the Latin-1 characters, so get() doesn't create one every time
+    private static final String[] LETTER_STRINGS = new String[256];
+
+    private long version;
+
+    static {
+        for (int c = 0; c < LETTER_STRINGS.length; c++) {
+            LETTER_STRINGS[c] = String.valueOf((char) c);
+        }
+    }
+
+    /**
+     * Adds the same letter count times in a row.
+     */
+    public abstract void appendLetters(char letter, int count);
+
+    /**
+     * @return The letter at the given position
+     */
+    public abstract char charAt(int index);
+
+    /**
+     * @return Every letter in the list, in order, as one String. This is
+     * the same thing String.join("", list) returns, only faster.
+     */
+    public abstract String toLetterString();
+
+    /**
+     * Writes every letter, one Latin-1 byte each, to the stream.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(out, 0, size());
+    }
+
+    /**
+     * Writes the letters from position 'from' up to (but not including)
+     * 'to', one Latin-1 byte each, to the stream, CHUNK_SIZE bytes at a
+     * time. No String is built, so the memory this takes doesn't depend on
+     * how many letters there are.
+     */
+    public void writeTo(OutputStream out, int from, int to) throws IOException {
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, to - from)];
+        for (int start = from; start < to; start += chunk.length) {
+            int count = Math.min(chunk.length, to - start);
+            copyTo(start, chunk, count);
+            out.write(chunk, 0, count);
+        }
+    }
+
+    /**
+     * Copies count letters, starting at position 'from', into the start
+     * of dest as Latin-1 bytes. Subclasses can do better than this
+     * letter-by-letter default.
+     */
+    protected void copyTo(int from, byte[] dest, int count) {
+        for (int i = 0; i < count; i++) {
+            dest[i] = (byte) charAt(from + i);
+        }
+    }
+
+    /**
+     * Writes the Strings from position 'from' up to (but not including)
+     * 'to' of any list to the stream as UTF-8, CHUNK_SIZE bytes at a time,
+     * without joining them first. A LetterList writes itself; any other
+     * list is read one element at a time.
+     */
+    public static void write(List<String> list, OutputStream out, int from, int to) throws IOException {
+        if (list instanceof LetterList letters) {
+            letters.writeTo(out, from, to);
+            return;
+        }
+        byte[] chunk = new byte[CHUNK_SIZE];
+        int used = 0;
+        for (int i = from; i < to; i++) {
+            String s = list.get(i);
+            if (s.length() == 1 && s.charAt(0) < 0x80) {
+                if (used == chunk.length) {
+                    out.write(chunk, 0, used);
+                    used = 0;
+                }
+                chunk[used++] = (byte) s.charAt(0);
+            } else {
+                out.write(chunk, 0, used);
+                used = 0;
+                out.write(s.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        out.write(chunk, 0, used);
+    }
+
+    /**
+     * @return A number that goes up every time the list changes, and never
+     * goes down, not even when the list is cleared. Two reads that get the
+     * same version saw the same letters. It starts over when the
+     * application restarts.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Subclasses call this on every change, where ArrayList would do
+     * modCount++. It bumps modCount, for the fail-fast iterators, and the
+     * version. The version is a long of its own because modCount is an int,
+     * which wraps around after 2^31 changes and would start repeating old
+     * versions (and ETags).
+     */
+    protected final void changed() {
+        modCount++;
+        version++;
+    }
+
+    /**
+     * @return The list's version, size and letters, read together so they
+     * can be used to answer one request. This default just reads the live
+     * list, so it's only as steady as the list itself: another thread
+     * changing the list in the meantime can still make writeTo fail.
+     * PersistentLetterList returns a real snapshot that never changes.
+     */
+    public Snapshot freeze() {
+        long version = getVersion();
+        return new Snapshot(version, size(), this);
+    }
+
+    /**
+     * A list's version and size at one moment, and where to get its letters.
+     * @param version What getVersion() returned
+     * @param size How many letters there were
+     * @param letters The list to write them from
+     */
+    public record Snapshot(long version, int size, LetterList letters) {
+
+        /**
+         * Writes letters from position 'from' up to (but not including)
+         * 'to', which must be within this snapshot's size.
+         */
+        public void writeTo(OutputStream out, int from, int to) throws IOException {
+            Objects.checkFromToIndex(from, to, size);
+            letters.writeTo(out, from, to);
+        }
+    }
+
+    @Override
+    public abstract void clear();
+
+    @Override
+    public String get(int index) {
+        return letterString(charAt(index));
+    }
+
+    @Override
+    public boolean add(String letter) {
+        appendLetters(toLetter(letter), 1);
+        return true;
+    }
+
+    @Override
+    public void add(int index, String letter) {
+        if (index != size()) {
+            throw new UnsupportedOperationException("Letters can only be added at the end");
+        }
+        add(letter);
+    }
+
+    /**
+     * @return The letter as a String, shared rather than new for Latin-1 letters
+     */
+    protected static String letterString(char letter) {
+        return letter < LETTER_STRINGS.length ? LETTER_STRINGS[letter] : String.valueOf(letter);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the String isn't exactly one character long
+     */
+    protected static char toLetter(String letter) {
+        if (letter.length() != 1) {
+            throw new IllegalArgumentException("Expected a single letter but got \"" + letter + "\"");
+        }
+        return letter.charAt(0);
+    }
+}
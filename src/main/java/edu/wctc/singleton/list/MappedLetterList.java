@@ -0,0 +1,189 @@
+package edu.wctc.singleton.list;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the letters in a file, so the history survives a restart. The
+ * file is memory-mapped: each chunk is a window onto part of the file,
+ * and adding a letter is just writing a byte to memory. The operating
+ * system copies changed pages to disk on its own schedule; force() makes
+ * it happen now, and a background thread calls it every so often.
+ *
+ * Opening an existing file doesn't read it. The header says how many
+ * letters there are, and the chunks are mapped over the rest of the file,
+ * so startup takes about as long for a billion letters as for ten. Pages
+ * are only read from disk once something actually looks at them.
+ *
+ * The file starts with a 4 KB header (the magic number, a format version
+ * and the letter count), followed by the letters, one byte each.
+ */
+public class MappedLetterList extends ChunkedLetterList implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+    private static final int MAGIC = 0x4C54_5253;   // "LTRS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int LENGTH_OFFSET = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    // Copy-on-write because the force thread reads it while requests add chunks
+    private final List<MappedByteBuffer> mappedChunks = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService forcer;
+
+    // The lowest position written since the last force(), or NOTHING_DIRTY.
+    // Writers lower it after writing, and force() takes it and resets it
+    // before forcing, so a write that happens during a force is always
+    // picked up by the next one.
+    private static final long NOTHING_DIRTY = Long.MAX_VALUE;
+    private final AtomicLong dirtyFrom = new AtomicLong(NOTHING_DIRTY);
+
+    /**
+     * Opens the file, or creates it if it doesn't exist yet, and never
+     * forces changes to disk except when asked to or when closed.
+     */
+    public MappedLetterList(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE, 0);
+    }
+
+    /**
+     * @param path The file to keep the letters in; created if missing
+     * @param chunkSize Bytes mapped at a time; must be a power of two
+     * @param forceIntervalMillis How often to force changes to disk, or 0 for never
+     * @throws IOException if the file can't be opened, or isn't a letter file
+     */
+    public MappedLetterList(Path path, int chunkSize, long forceIntervalMillis) throws IOException {
+        super(chunkSize);
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean isNew = channel.size() == 0;
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (isNew) {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(VERSION_OFFSET, FORMAT_VERSION);
+                header.putLong(LENGTH_OFFSET, 0);
+                header.force();
+            } else if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != FORMAT_VERSION) {
+                throw new IOException(path + " is not a letter file");
+            }
+
+            long length = header.getLong(LENGTH_OFFSET);
+            if (length < 0 || length > Integer.MAX_VALUE || HEADER_SIZE + length > channel.size()) {
+                throw new IOException(path + " says it holds " + length + " letters, which doesn't fit the file");
+            }
+            restoreSize(length);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        if (forceIntervalMillis > 0) {
+            forcer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "letter-file-force");
+                thread.setDaemon(true);
+                return thread;
+            });
+            forcer.scheduleWithFixedDelay(this::forceQuietly, forceIntervalMillis, forceIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            forcer = null;
+        }
+    }
+
+    @Override
+    protected ByteBuffer newChunk(int index, int chunkSize) throws IOException {
+        // Mapping past the end of the file makes the file longer
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+                HEADER_SIZE + (long) index * chunkSize, chunkSize);
+        mappedChunks.add(chunk);
+        return chunk;
+    }
+
+    // The count goes into the header only after the letters themselves
+    // are written, so the header never claims letters that aren't there
+    @Override
+    public void appendLetters(char letter, int count) {
+        int start = size();
+        super.appendLetters(letter, count);
+        header.putLong(LENGTH_OFFSET, size());
+        dirtyFrom.accumulateAndGet(start, Math::min);
+    }
+
+    // Whatever is added next goes over letters that may already be on
+    // disk, so everything from the start has to be forced again
+    @Override
+    public void clear() {
+        super.clear();
+        header.putLong(LENGTH_OFFSET, 0);
+        dirtyFrom.set(0);
+    }
+
+    /**
+     * Waits until every letter added so far, and the count in the header,
+     * have been written to disk.
+     */
+    public synchronized void force() {
+        // Only chunks written since the last force can have changed
+        long from = dirtyFrom.getAndSet(NOTHING_DIRTY);
+        if (from != NOTHING_DIRTY) {
+            for (int i = (int) (from / getChunkSize()); i < mappedChunks.size(); i++) {
+                mappedChunks.get(i).force();
+            }
+        }
+        header.force();
+    }
+
+    /**
+     * @return The lowest position written since the last force(), or
+     * Long.MAX_VALUE if nothing has been
+     */
+    long getDirtyFrom() {
+        return dirtyFrom.get();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Stops the background forcing, forces everything one last time and
+     * closes the file. The mapped memory itself is released once the
+     * list is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        if (forcer != null) {
+            forcer.shutdownNow();
+        }
+        force();
+        channel.close();
+    }
+
+    private void forceQuietly() {
+        try {
+            force();
+        } catch (RuntimeException e) {
+            // Try again next time rather than stopping the schedule for good
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+    }
+}
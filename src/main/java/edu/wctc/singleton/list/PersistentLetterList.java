@@ -0,0 +1,136 @@
+package edu.wctc.singleton.list;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A LetterList whose current contents are always one PersistentVector,
+ * held in an AtomicReference. Nothing is ever changed in place:
+ *
+ * - A reader calls snapshot(), which is a single volatile read, and gets
+ *   a vector that will never change, however much other threads add.
+ *   Readers never lock, never copy and never wait for a writer.
+ * - A writer builds a new vector from the current one and installs it
+ *   with compareAndSet. If another writer got there first, it simply
+ *   tries again from the newer vector. Nothing written is ever lost.
+ *   Each call is one compareAndSet, so appendLetters(letter, 10) adds all
+ *   10 at once, but version1 still calls add() 10 times, and another
+ *   request's letters can land between any two of them.
+ *
+ * Iterating over the list iterates over a snapshot, so it never throws
+ * ConcurrentModificationException.
+ */
+public class PersistentLetterList extends LetterList {
+    private final AtomicReference<State> current;
+
+    public PersistentLetterList() {
+        this(new State(PersistentVector.empty(), 0));
+    }
+
+    // Used by freeze(): a list that nobody else can reach, so it never changes
+    private PersistentLetterList(State state) {
+        current = new AtomicReference<>(state);
+    }
+
+    /**
+     * @return The list as it is right now; later changes don't show up in it
+     */
+    public PersistentVector<String> snapshot() {
+        return current.get().letters();
+    }
+
+    // Published together, so a version always matches its letters exactly
+    @Override
+    public long getVersion() {
+        return current.get().version();
+    }
+
+    /**
+     * One volatile read: the version, size and letters all come from the
+     * same vector, and writing them out can never fail because of a
+     * change made afterwards.
+     */
+    @Override
+    public Snapshot freeze() {
+        State state = current.get();
+        return new Snapshot(state.version(), state.letters().size(), new PersistentLetterList(state));
+    }
+
+    @Override
+    public void appendLetters(char letter, int count) {
+        if (letter > 0xFF) {
+            throw new IllegalArgumentException("Only Latin-1 letters can be stored, not '" + letter + "'");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        String element = letterString(letter);
+        State before;
+        State after;
+        // If another writer installs its vector between our get() and
+        // compareAndSet(), the CAS fails and we build on theirs instead
+        do {
+            before = current.get();
+            after = new State(before.letters().plus(element, count), before.version() + 1);
+        } while (!current.compareAndSet(before, after));
+    }
+
+    @Override
+    public char charAt(int index) {
+        return snapshot().get(index).charAt(0);
+    }
+
+    @Override
+    public String get(int index) {
+        return snapshot().get(index);
+    }
+
+    @Override
+    public String toLetterString() {
+        PersistentVector<String> letters = snapshot();
+        StringBuilder builder = new StringBuilder(letters.size());
+        for (String letter : letters) {
+            builder.append(letter);
+        }
+        return builder.toString();
+    }
+
+    // Copies from one snapshot, so the letters written always belong together
+    @Override
+    public void writeTo(OutputStream out, int from, int to) throws IOException {
+        PersistentVector<String> letters = snapshot();
+        Objects.checkFromToIndex(from, to, letters.size());
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, to - from)];
+        for (int start = from; start < to; start += chunk.length) {
+            int count = Math.min(chunk.length, to - start);
+            for (int i = 0; i < count; i++) {
+                chunk[i] = (byte) letters.get(start + i).charAt(0);
+            }
+            out.write(chunk, 0, count);
+        }
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public void clear() {
+        State before;
+        do {
+            before = current.get();
+        } while (!current.compareAndSet(before, new State(PersistentVector.empty(), before.version() + 1)));
+    }
+
+    @Override
+    public int size() {
+        return snapshot().size();
+    }
+
+    private record State(PersistentVector<String> letters, long version) {
+    }
+}
@@ -0,0 +1,185 @@
+package edu.wctc.singleton.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list that can still be "added to": plus() returns a new
+ * vector with one more element and leaves this one exactly as it was. The
+ * new vector shares almost everything with the old one, so that is cheap.
+ *
+ * The elements live in a tree where every node has 32 children, with the
+ * last (up to) 32 elements kept aside in a "tail" array. Adding an element
+ * usually just copies the tail; every 32nd add also copies the one path
+ * from the root down to where the full tail gets attached. A tree of a
+ * billion elements is only 6 levels deep, so get() is effectively O(1).
+ * This is the same design as Clojure's and Scala's vectors.
+ *
+ * Because a vector never changes, any number of threads can read one with
+ * no locking at all.
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY =
+            new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+    private final int size;
+    // How far to shift an index to find its slot in the root node
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    /**
+     * @return A new vector with the element added at the end. This one is
+     * not changed.
+     */
+    public PersistentVector<E> plus(E element) {
+        // Room left in the tail: copy it, one longer
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        // The tail is full: hang it in the tree, and start a new tail
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            // The tree is full too, so it grows a level
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{element});
+    }
+
+    /**
+     * The same as calling plus(element) count times, but the tail is
+     * copied once per 32 elements instead of once per element.
+     */
+    public PersistentVector<E> plus(E element, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        PersistentVector<E> result = this;
+        while (count > 0) {
+            int room = WIDTH - (result.size - result.tailOffset());
+            if (room == 0 || result.size == 0) {
+                result = result.plus(element);
+                count--;
+                continue;
+            }
+            int n = Math.min(room, count);
+            Object[] newTail = Arrays.copyOf(result.tail, result.tail.length + n);
+            Arrays.fill(newTail, result.tail.length, newTail.length, element);
+            result = new PersistentVector<>(result.size + n, result.shift, result.root, newTail);
+            count -= n;
+        }
+        return result;
+    }
+
+    /**
+     * Walks the leaves in order, 32 elements at a time, instead of going
+     * down from the root for every element.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if ((index & MASK) == 0 || leaf == null) {
+                    leaf = leafFor(index);
+                }
+                return (E) leaf[index++ & MASK];
+            }
+        };
+    }
+
+    // Index of the first element that is in the tail rather than the tree
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    // Copies the path from 'parent' down to the first empty leaf slot and
+    // puts the old tail there
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int slot = ((size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        Object[] child;
+        if (level == BITS) {
+            child = tailNode;
+        } else {
+            Object[] existing = (Object[]) parent[slot];
+            child = existing != null ? pushTail(level - BITS, existing, tailNode) : newPath(level - BITS, tailNode);
+        }
+        copy[slot] = child;
+        return copy;
+    }
+
+    // A chain of single-child nodes, 'level' deep, ending at 'node'
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+}
@@ -0,0 +1,108 @@
+package edu.wctc.singleton.list;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Stores the letters as runs: "AAAAAAAAAAQQQQQQQQQQ" is kept as the letter
+ * A ending at position 10 and the letter Q ending at position 20. version1
+ * adds 10 of the same letter per request, so each request costs one run,
+ * 5 bytes, instead of 10 references to String objects (40 to 80 bytes,
+ * plus whatever room the ArrayList has grown but not used yet).
+ *
+ * Finding the letter at a position is a binary search over the run ends,
+ * so get() is O(log runs) instead of O(1). Only Latin-1 letters are
+ * allowed, so each one fits in a byte.
+ */
+public class RunLengthLetterList extends LetterList {
+    private static final int INITIAL_RUNS = 16;
+
+    private byte[] letters = new byte[INITIAL_RUNS];
+    // runEnds[r] is the position just past the last letter of run r
+    private int[] runEnds = new int[INITIAL_RUNS];
+    private int runs;
+    private int size;
+
+    @Override
+    public void appendLetters(char letter, int count) {
+        if (letter > 0xFF) {
+            throw new IllegalArgumentException("Only Latin-1 letters can be stored, not '" + letter + "'");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        if (count == 0) {
+            return;
+        }
+        int newSize = Math.addExact(size, count);
+        changed();
+        if (runs > 0 && letters[runs - 1] == (byte) letter) {
+            runEnds[runs - 1] = newSize;
+        } else {
+            if (runs == letters.length) {
+                int capacity = runs + (runs >> 1);
+                letters = Arrays.copyOf(letters, capacity);
+                runEnds = Arrays.copyOf(runEnds, capacity);
+            }
+            letters[runs] = (byte) letter;
+            runEnds[runs] = newSize;
+            runs++;
+        }
+        size = newSize;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, size);
+        // The run holding index is the first one that ends after it
+        int run = Arrays.binarySearch(runEnds, 0, runs, index);
+        run = run >= 0 ? run + 1 : -run - 1;
+        return (char) (letters[run] & 0xFF);
+    }
+
+    @Override
+    public String toLetterString() {
+        byte[] bytes = new byte[size];
+        int start = 0;
+        for (int r = 0; r < runs; r++) {
+            Arrays.fill(bytes, start, runEnds[r], letters[r]);
+            start = runEnds[r];
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    protected void copyTo(int from, byte[] dest, int count) {
+        Objects.checkFromIndexSize(from, count, size);
+        int run = Arrays.binarySearch(runEnds, 0, runs, from);
+        run = run >= 0 ? run + 1 : -run - 1;
+        int copied = 0;
+        while (copied < count) {
+            int runLeft = runEnds[run] - (from + copied);
+            int n = Math.min(runLeft, count - copied);
+            Arrays.fill(dest, copied, copied + n, letters[run]);
+            copied += n;
+            run++;
+        }
+    }
+
+    @Override
+    public void clear() {
+        changed();
+        runs = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return How many runs are stored, i.e. how many times the letter changed, plus one
+     */
+    public int getRunCount() {
+        return runs;
+    }
+}
@@ -0,0 +1,72 @@
+package edu.wctc.singleton.list;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides the list StressTestController keeps as 'sharedList'. The
+ * default is a plain ArrayList, exactly as before. Set
+ * singleton.shared-list=run-length to store version1's ever-growing
+ * history as a RunLengthLetterList instead, append-only to keep it
+ * already joined in an AppendOnlyLetterList, direct to keep it off the
+ * heap in a DirectLetterList, mapped to keep it in a file that is
+ * still there after a restart (see MappedLetterList), or persistent to
+ * let /v1/state read it without locks (see PersistentLetterList).
+ */
+@Configuration
+public class SharedListConfiguration {
+
+    // Both beans are named "sharedList" because that is the name the
+    // controller asks for; a List<String> alone would be ambiguous, since
+    // Spring reads a List parameter as "every String bean there is"
+    @Bean("sharedList")
+    @ConditionalOnProperty(name = "singleton.shared-list", havingValue = "array-list", matchIfMissing = true)
+    public List<String> arrayListSharedList() {
+        return new ArrayList<>();
+    }
+
+    @Bean("sharedList")
+    @ConditionalOnProperty(name = "singleton.shared-list", havingValue = "run-length")
+    public List<String> runLengthSharedList() {
+        return new RunLengthLetterList();
+    }
+
+    @Bean("sharedList")
+    @ConditionalOnProperty(name = "singleton.shared-list", havingValue = "append-only")
+    public List<String> appendOnlySharedList() {
+        return new AppendOnlyLetterList();
+    }
+
+    @Bean("sharedList")
+    @ConditionalOnProperty(name = "singleton.shared-list", havingValue = "direct")
+    public List<String> directSharedList(
+            @Value("${singleton.shared-list.chunk-size:" + DirectLetterList.DEFAULT_CHUNK_SIZE + "}") int chunkSize) {
+        return new DirectLetterList(chunkSize);
+    }
+
+    @Bean("sharedList")
+    @ConditionalOnProperty(name = "singleton.shared-list", havingValue = "persistent")
+    public List<String> persistentSharedList() {
+        return new PersistentLetterList();
+    }
+
+    // Spring calls the list's close() on shutdown, which forces the last
+    // letters to disk
+    @Bean("sharedList")
+    @ConditionalOnProperty(name = "singleton.shared-list", havingValue = "mapped")
+    public List<String> mappedSharedList(
+            @Value("${singleton.shared-list.file:history.letters}") Path file,
+            @Value("${singleton.shared-list.chunk-size:" + MappedLetterList.DEFAULT_CHUNK_SIZE + "}") int chunkSize,
+            @Value("${singleton.shared-list.force-interval-millis:1000}") long forceIntervalMillis) throws IOException {
+        MappedLetterList list = new MappedLetterList(file, chunkSize, forceIntervalMillis);
+        System.out.printf("Mapped %d letters from %s%n", list.size(), file.toAbsolutePath());
+        return list;
+    }
+}
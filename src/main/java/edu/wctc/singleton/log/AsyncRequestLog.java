@@ -0,0 +1,158 @@
+package edu.wctc.singleton.log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logs without holding up the request. log() only drops the id and the
+ * message into a lock-free ring buffer and returns. One writer thread
+ * empties the buffer, formats a whole batch of lines at once and writes
+ * them with a single write() call and a single flush.
+ *
+ * When the writer can't keep up and the buffer fills, new lines are
+ * dropped (and counted) rather than making requests wait. To log less in
+ * the first place, sampleRate can be set below 1 to keep only that share
+ * of lines. Messages longer than maxMessageLength are cut short before
+ * they're queued, so a 10 MB /v1 response is logged as its first few
+ * letters, and a full buffer holds copies of those letters rather than
+ * thousands of whole responses.
+ */
+public class AsyncRequestLog implements RequestLog, AutoCloseable {
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MpscRingBuffer<Entry> buffer;
+    private final OutputStream out;
+    private final double sampleRate;
+    private final int maxMessageLength;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    // Only used by the writer thread
+    private final StringBuilder batch = new StringBuilder();
+    private long droppedReported;
+
+    /**
+     * @param out Where the lines go; written to by the writer thread only
+     * @param capacity How many lines can wait to be written before new ones are dropped
+     * @param sampleRate The share of lines to log, from 0 (none) to 1 (all)
+     * @param maxMessageLength Longer messages are cut to this many characters
+     */
+    public AsyncRequestLog(OutputStream out, int capacity, double sampleRate, int maxMessageLength) {
+        if (sampleRate < 0 || sampleRate > 1 || maxMessageLength < 0) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1, and the length not negative");
+        }
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.out = out;
+        this.sampleRate = sampleRate;
+        this.maxMessageLength = maxMessageLength;
+
+        writer = new Thread(this::run, "request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void log(int id, String message) {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            skipped.increment();
+            return;
+        }
+        Entry entry = message.length() > maxMessageLength
+                ? new Entry(id, message.substring(0, maxMessageLength), message.length() - maxMessageLength)
+                : new Entry(id, message, 0);
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return Lines lost because the buffer was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Lines left out on purpose by sampling
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return Lines written so far
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Writes whatever is still waiting, then stops the writer thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (writeBatch() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        while (writeBatch() > 0) {
+            // Keep going until everything queued before close() is out
+        }
+    }
+
+    private int writeBatch() {
+        int count = buffer.drain(this::append, MAX_BATCH);
+        long droppedNow = dropped.sum();
+        if (droppedNow > droppedReported) {
+            batch.append("[request log dropped ").append(droppedNow - droppedReported)
+                    .append(" lines; the buffer was full]").append(System.lineSeparator());
+            droppedReported = droppedNow;
+        }
+        if (batch.length() > 0) {
+            try {
+                out.write(batch.toString().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                // Nowhere left to report it; the lines are lost
+            }
+            batch.setLength(0);
+            written.add(count);
+        }
+        return count;
+    }
+
+    private void append(Entry entry) {
+        batch.append(entry.id()).append(": ").append(entry.message());
+        if (entry.cut() > 0) {
+            batch.append("... (").append(entry.cut()).append(" more)");
+        }
+        batch.append(System.lineSeparator());
+    }
+
+    /**
+     * @param cut How many characters were cut off the end of the message
+     */
+    private record Entry(int id, String message, int cut) {
+    }
+}
@@ -0,0 +1,78 @@
+package edu.wctc.singleton.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A fixed-size queue for many producer threads and exactly one consumer
+ * thread, with no locks. A producer claims the next slot by moving 'tail'
+ * forward with compareAndSet, then puts its element in that slot. The
+ * consumer takes elements from 'head' in order; a slot that has been
+ * claimed but not filled yet still reads as empty, so the consumer stops
+ * there and picks it up next time.
+ *
+ * When the buffer is full, offer() fails right away instead of waiting,
+ * so a producer is never held up by a slow consumer.
+ */
+final class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only the consumer writes this; producers read it to see if there's room
+    private volatile long head;
+
+    /**
+     * @param capacity Rounded up to a power of two
+     */
+    MpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return false if the buffer was full and the element was not added
+     */
+    boolean offer(E element) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.set((int) (claimed & mask), element);
+        return true;
+    }
+
+    /**
+     * Hands up to 'max' elements to the consumer, oldest first. Must only
+     * ever be called from one thread.
+     * @return How many elements were taken
+     */
+    int drain(Consumer<E> consumer, int max) {
+        long position = head;
+        int taken = 0;
+        while (taken < max) {
+            int slot = (int) (position & mask);
+            E element = slots.get(slot);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(slot, null);
+            position++;
+            taken++;
+            consumer.accept(element);
+        }
+        head = position;
+        return taken;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,22 @@
+package edu.wctc.singleton.log;
+
+import java.io.PrintStream;
+
+/**
+ * The original way: System.out.printf, right there on the request thread.
+ * PrintStream locks itself for every call and flushes at every newline,
+ * so every Tomcat thread ends up waiting in line for the console, and a
+ * multi-megabyte /v1 response gets printed in full.
+ */
+public class PrintfRequestLog implements RequestLog {
+    private final PrintStream out;
+
+    public PrintfRequestLog(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void log(int id, String message) {
+        out.printf("%d: %s%n", id, message);
+    }
+}
@@ -0,0 +1,11 @@
+package edu.wctc.singleton.log;
+
+/**
+ * Where StressTestController's handlers report what they returned. Each
+ * line is "id: message", where the id is the controller's hashCode, to
+ * show that the same controller object serves every request.
+ */
+public interface RequestLog {
+
+    void log(int id, String message);
+}
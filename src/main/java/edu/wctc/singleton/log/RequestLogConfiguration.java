@@ -0,0 +1,31 @@
+package edu.wctc.singleton.log;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the RequestLog the controller's handlers write to. The default
+ * is an AsyncRequestLog, tuned with singleton.log.capacity,
+ * singleton.log.sample-rate and singleton.log.max-message-length. Set
+ * singleton.log=printf to go back to printing on the request thread.
+ */
+@Configuration
+public class RequestLogConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "singleton.log", havingValue = "async", matchIfMissing = true)
+    public RequestLog asyncRequestLog(
+            @Value("${singleton.log.capacity:8192}") int capacity,
+            @Value("${singleton.log.sample-rate:1.0}") double sampleRate,
+            @Value("${singleton.log.max-message-length:200}") int maxMessageLength) {
+        return new AsyncRequestLog(System.out, capacity, sampleRate, maxMessageLength);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "singleton.log", havingValue = "printf")
+    public RequestLog printfRequestLog() {
+        return new PrintfRequestLog(System.out);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.wctc.singleton.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The same buckets as LatencyHistogram, but any number of threads can
+ * record into it at once without locking: each bucket is incremented with
+ * a single atomic add. Two threads only ever compete when they record into
+ * the very same bucket at the very same moment.
+ *
+ * To read it, copy it into a LatencyHistogram with copyInto(). A copy made
+ * while other threads are recording may miss the values recorded during
+ * the copy, but never counts anything twice.
+ */
+public class ConcurrentLatencyHistogram {
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Adds one value. Negative values count as 0; values above
+     * HIGHEST_TRACKABLE_VALUE land in the top bucket.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, LatencyHistogram.HIGHEST_TRACKABLE_VALUE));
+        // The max goes first, so a copy never has a count without its max
+        if (clamped > maxValue.get()) {
+            maxValue.accumulateAndGet(clamped, Math::max);
+        }
+        counts.incrementAndGet(LatencyHistogram.bucketIndex(clamped));
+    }
+
+    /**
+     * Adds everything recorded so far to the target histogram.
+     */
+    public void copyInto(LatencyHistogram target) {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                target.addToBucket(i, count);
+            }
+        }
+        target.raiseMaxValue(maxValue.get());
+    }
+
+    /**
+     * Empties the histogram. Values recorded while this runs may or may not
+     * survive it.
+     */
+    public void reset() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        maxValue.set(0);
+    }
+}
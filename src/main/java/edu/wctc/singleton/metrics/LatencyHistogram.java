@@ -0,0 +1,123 @@
+package edu.wctc.singleton.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of non-negative values (usually nanoseconds),
+ * laid out the same way as HdrHistogram: small values get one bucket each,
+ * and above that every power of two is split into 64 equal buckets. That
+ * keeps every recorded value within about 1.6% of its true size while the
+ * whole histogram stays a few thousand longs, no matter how many values
+ * are recorded.
+ *
+ * This class is NOT thread-safe. The idea is that each thread records into
+ * its own histogram and the histograms are added together afterward. When
+ * many threads have to record into the same one, use
+ * ConcurrentLatencyHistogram instead.
+ */
+public class LatencyHistogram {
+    // 2^7 = 128 values recorded exactly, then 64 buckets per power of two
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+    // Anything at or above 2^40 (about 18 minutes in nanoseconds) is
+    // counted in the last bucket
+    private static final int MAX_VALUE_BITS = 40;
+    public static final long HIGHEST_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    static final int BUCKET_COUNT =
+            SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long maxValue;
+
+    /**
+     * Adds one value. Negative values count as 0; values above
+     * HIGHEST_TRACKABLE_VALUE land in the top bucket.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, HIGHEST_TRACKABLE_VALUE));
+        counts[bucketIndex(clamped)]++;
+        totalCount++;
+        if (clamped > maxValue) {
+            maxValue = clamped;
+        }
+    }
+
+    /**
+     * Adds every value recorded in another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        maxValue = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * @param percentile Between 0 and 100, e.g. 99.9
+     * @return The highest value that falls in the same bucket as the value
+     *         at that percentile, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueInBucket(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    // Used by ConcurrentLatencyHistogram to copy its counts into this one
+    void addToBucket(int index, long count) {
+        counts[index] += count;
+        totalCount += count;
+    }
+
+    void raiseMaxValue(long value) {
+        maxValue = Math.max(maxValue, value);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // How far to shift the value right so that it fits in 7 bits
+        // with its top bit set
+        int shift = (64 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + (subBucket - HALF_SUB_BUCKET_COUNT);
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.wctc.singleton.spammer;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+/**
+ * Inspects a response body chunk by chunk as it comes off the network,
+ * counting characters and checking whether they are all the same letter.
+ * Nothing is copied unless the body was asked to be kept for printing, so
+ * checking a body costs a few field updates no matter how long it is.
+ *
+ * The controller only ever sends plain ASCII letters, so each byte is
+ * treated as one character.
+ */
+public class BodyCheck implements Flow.Subscriber<List<ByteBuffer>> {
+    private final StringBuilder text;
+    private long length;
+    private int firstLetter = -1;
+    private boolean singleLetter = true;
+
+    /**
+     * @param keepText Whether to also hold on to the body so it can be printed
+     */
+    public BodyCheck(boolean keepText) {
+        text = keepText ? new StringBuilder() : null;
+    }
+
+    public void update(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            check(buffer.get());
+        }
+    }
+
+    public void update(byte[] bytes, int offset, int count) {
+        for (int i = offset; i < offset + count; i++) {
+            check(bytes[i]);
+        }
+    }
+
+    private void check(byte b) {
+        if (firstLetter < 0) {
+            firstLetter = b;
+        } else if (b != firstLetter) {
+            singleLetter = false;
+        }
+        length++;
+        if (text != null) {
+            text.append((char) (b & 0xFF));
+        }
+    }
+
+    /**
+     * @param status The HTTP status the body arrived with
+     * @return Everything learned about the body
+     */
+    public Response toResponse(int status) {
+        return toResponse(status, Map.of());
+    }
+
+    /**
+     * @param serverTiming What the response's Server-Timing header said
+     */
+    public Response toResponse(int status, Map<String, Long> serverTiming) {
+        return new Response(status, length, singleLetter && length > 0,
+                text == null ? null : text.toString(), serverTiming);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        for (ByteBuffer buffer : buffers) {
+            update(buffer);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // The HttpClient fails the response future itself
+    }
+
+    @Override
+    public void onComplete() {
+        // Nothing to flush; toResponse() reads the running totals
+    }
+}
@@ -0,0 +1,88 @@
+package edu.wctc.singleton.spammer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The original way RequestSpammer worked: start a separate curl process for
+ * every single request. Forking a process costs far more than serving one of
+ * our requests, so this is only kept around as a legacy mode to show how
+ * much it distorts the measurements. Only the body is read, so responses
+ * from this transport carry no Server-Timing numbers.
+ */
+public class CurlTransport implements Transport {
+    // curl prints the status code after the body, always as 3 digits
+    private static final int STATUS_LENGTH = 3;
+    // curl's exit code when --max-time runs out
+    private static final int TIMED_OUT = 28;
+
+    // Threads are reused from run to run, and there are never more of them
+    // than the LoadGenerator allows requests in flight
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final boolean keepBodies;
+    private final Duration timeout;
+
+    public CurlTransport(boolean keepBodies, Duration timeout) {
+        this.keepBodies = keepBodies;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public CompletableFuture<Response> get(URI uri) {
+        return CompletableFuture.supplyAsync(() -> {
+            String[] command = {"curl", "-s", "-X", "GET", "-w", "%{http_code}",
+                    "--max-time", Long.toString(timeout.toSeconds()), uri.toString()};
+            Process process;
+            try {
+                process = Runtime.getRuntime().exec(command);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try (InputStream in = process.getInputStream()) {
+                byte[] output = in.readAllBytes();
+                // The output only ends once curl is finishing, so this doesn't wait long
+                if (process.waitFor() == TIMED_OUT) {
+                    throw new UncheckedIOException(new HttpTimeoutException("curl timed out after " + timeout));
+                }
+                return parse(output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                process.destroy();
+            }
+        }, executor);
+    }
+
+    private Response parse(byte[] output) {
+        if (output.length < STATUS_LENGTH) {
+            return new Response(0, 0, false, null, Map.of());
+        }
+        int split = output.length - STATUS_LENGTH;
+        int status;
+        try {
+            status = Integer.parseInt(new String(output, split, STATUS_LENGTH, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            status = 0;
+        }
+        BodyCheck check = new BodyCheck(keepBodies);
+        check.update(output, 0, split);
+        return check.toResponse(status);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,63 @@
+package edu.wctc.singleton.spammer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends requests from inside this JVM with one shared HttpClient. The client
+ * keeps its connections open between requests, so after the first few
+ * requests we are no longer paying for a TCP handshake (or a new process)
+ * every time. Bodies are run through a BodyCheck as they stream in rather
+ * than being collected into a String first, and the server's own timings
+ * are read from the Server-Timing header.
+ */
+public class HttpClientTransport implements Transport {
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final boolean keepBodies;
+    private final Duration timeout;
+
+    public HttpClientTransport(boolean keepBodies, Duration timeout) {
+        this.keepBodies = keepBodies;
+        this.timeout = timeout;
+        // A small fixed pool is plenty: the client only needs threads to
+        // run completion callbacks, not one per request in flight
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        client = HttpClient.newBuilder()
+                // Plain HTTP/1.1 so the client doesn't try to upgrade to h2c,
+                // which Tomcat is not configured for
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<Response> get(URI uri) {
+        // Without a timeout, a request the server never answers would hold
+        // its in-flight slot for good
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+        HttpResponse.BodyHandler<Response> handler = info -> {
+            // The header may be split over several lines; together they're one list
+            List<String> timings = info.headers().allValues(ServerTiming.HEADER);
+            Map<String, Long> serverTiming = timings.isEmpty() ? Map.of()
+                    : ServerTiming.parse(String.join(",", timings));
+            return HttpResponse.BodySubscribers.fromSubscriber(
+                    new BodyCheck(keepBodies), check -> check.toResponse(info.statusCode(), serverTiming));
+        };
+        return client.sendAsync(request, handler).thenApply(HttpResponse::body);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
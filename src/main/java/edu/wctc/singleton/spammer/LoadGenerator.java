@@ -0,0 +1,167 @@
+package edu.wctc.singleton.spammer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides WHEN each request goes out. There are two modes:
+ *
+ * Burst (rate = 0): every request is sent as soon as there is room for it,
+ * and latency is measured from the moment each one was actually sent. This
+ * is the original RequestSpammer behavior.
+ *
+ * Open loop (rate > 0): requests are laid out on a fixed timeline, one
+ * every 1/rate seconds, no matter how fast the server answers. Latency is
+ * measured from the time a request was SUPPOSED to start. If the server
+ * stalls (say, /v4 has tied up every Tomcat thread), the requests that
+ * should have gone out during the stall are charged for the time they
+ * spent waiting, instead of quietly disappearing from the results. This is
+ * known as correcting for "coordinated omission".
+ *
+ * In both modes no more than maxInFlight requests are ever outstanding at
+ * once. One generator is meant to be created up front and reused for every
+ * run, so its permits (and the transport's threads and connections) carry
+ * over from run to run.
+ */
+public class LoadGenerator {
+    private final Transport transport;
+    private final double rate;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    /**
+     * @param transport How to send each request
+     * @param rate Target requests per second, or 0 to send as fast as permits allow
+     * @param maxInFlight The most requests that may be waiting for a response at once
+     */
+    public LoadGenerator(Transport transport, double rate, int maxInFlight) {
+        this.transport = transport;
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * How a run ended.
+     * @param sent How many requests were sent
+     * @param incomplete How many of those were still waiting for a response
+     *                   when the run gave up on them
+     */
+    public record Result(long sent, long incomplete) {
+    }
+
+    /**
+     * Sends requests until either limit is reached, then waits for the ones
+     * still in flight. The calling thread does the pacing, so this method
+     * blocks for the whole run.
+     * @param requests Stop after this many requests, or 0 for no limit
+     * @param duration Stop sending after this long, or zero for no limit
+     * @param drainTimeout How long to wait for outstanding responses once sending stops
+     */
+    public Result run(URI uri, long requests, Duration duration, Duration drainTimeout,
+                      RequestListener listener) throws InterruptedException {
+        if (requests <= 0 && duration.isZero()) {
+            throw new IllegalArgumentException("A run needs a request count, a duration, or both");
+        }
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        long start = System.nanoTime();
+        long durationNanos = duration.toNanos();
+
+        // The requests still waiting for a response. Results that arrive
+        // after we've given up on them are not passed on, so the listener
+        // can be read once run() returns. (A response that was already being
+        // recorded at the moment we gave up can still slip in; that only
+        // happens when the drain timeout expires.)
+        Set<CompletableFuture<Response>> pending = ConcurrentHashMap.newKeySet();
+        long sent = 0;
+
+        while (requests <= 0 || sent < requests) {
+            long intendedStart = start + sent * intervalNanos;
+            if (intervalNanos > 0) {
+                if (durationNanos > 0 && intendedStart - start >= durationNanos) {
+                    break;
+                }
+                waitUntil(intendedStart);
+            }
+
+            if (!acquire(start, durationNanos)) {
+                break;
+            }
+            if (intervalNanos == 0) {
+                // In burst mode the clock starts once there's room to send
+                intendedStart = System.nanoTime();
+            }
+            send(uri, intendedStart, listener, pending);
+            sent++;
+        }
+
+        long incomplete = 0;
+        if (inFlight.tryAcquire(maxInFlight, drainTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            inFlight.release(maxInFlight);
+        } else {
+            // Take the permits back now rather than when (or if) these ever
+            // finish, so the next run can have every one of them
+            for (CompletableFuture<Response> future : pending) {
+                if (pending.remove(future)) {
+                    future.cancel(true);
+                    inFlight.release();
+                    incomplete++;
+                }
+            }
+        }
+        return new Result(sent, incomplete);
+    }
+
+    // Waits for a free in-flight slot, but not past the end of a timed run
+    private boolean acquire(long start, long durationNanos) throws InterruptedException {
+        if (durationNanos <= 0) {
+            inFlight.acquire();
+            return true;
+        }
+        long remaining = start + durationNanos - System.nanoTime();
+        return remaining > 0 && inFlight.tryAcquire(remaining, TimeUnit.NANOSECONDS);
+    }
+
+    private void send(URI uri, long intendedStart, RequestListener listener,
+                      Set<CompletableFuture<Response>> pending) {
+        CompletableFuture<Response> sending;
+        try {
+            sending = transport.get(uri);
+        } catch (RuntimeException e) {
+            sending = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Response> future = sending;
+        pending.add(future);
+        future.whenComplete((response, error) -> {
+            // Already given up on, and its permit already returned
+            if (!pending.remove(future)) {
+                return;
+            }
+            try {
+                long latency = System.nanoTime() - intendedStart;
+                if (error != null) {
+                    listener.onError(error, latency);
+                } else {
+                    listener.onResponse(response, latency);
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    // If we're already behind schedule this returns right away, so the
+    // generator catches up instead of pushing the whole timeline back
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package edu.wctc.singleton.spammer;
+
+/**
+ * Receives the result of every request a LoadGenerator sends. Callbacks
+ * arrive on whatever thread completed the request, so implementations
+ * must be safe to call from many threads at once.
+ */
+public interface RequestListener {
+
+    /**
+     * @param response What the server sent back
+     * @param latencyNanos Time from the request's intended start until the response arrived
+     */
+    void onResponse(Response response, long latencyNanos);
+
+    /**
+     * @param error Why the request failed (connection refused, timeout, ...)
+     * @param latencyNanos Time from the request's intended start until it failed
+     */
+    void onError(Throwable error, long latencyNanos);
+}
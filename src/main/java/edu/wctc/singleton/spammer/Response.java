@@ -0,0 +1,20 @@
+package edu.wctc.singleton.spammer;
+
+import java.util.Map;
+
+/**
+ * What came back from one request, boiled down to what we need to judge it.
+ * @param status The HTTP status code, or 0 if it could not be determined
+ * @param length How many characters were in the body
+ * @param singleLetter Whether the body was one letter repeated
+ * @param body The body itself, or null if it was not kept
+ * @param serverTiming The server's own timings from the Server-Timing
+ *                     header, in nanoseconds (see ServerTiming); empty if there were none
+ */
+public record Response(int status, long length, boolean singleLetter, String body,
+                       Map<String, Long> serverTiming) {
+
+    public ResponseCategory category() {
+        return ResponseCategory.of(status, length, singleLetter);
+    }
+}
@@ -0,0 +1,48 @@
+package edu.wctc.singleton.spammer;
+
+/**
+ * The ways a response from StressTestController can turn out. A correct
+ * response is exactly 10 copies of one letter; everything else is evidence
+ * of some kind of problem.
+ */
+public enum ResponseCategory {
+    CORRECT("10 of one letter"),
+    WRONG_LENGTH("not 10 characters"),
+    MIXED_LETTERS("more than one letter"),
+    SERVER_ERROR("HTTP 5xx, e.g. ConcurrentModificationException"),
+    OTHER_STATUS("any other non-2xx status"),
+    TIMEOUT("no response within --timeout"),
+    TRANSPORT_ERROR("no response at all");
+
+    public static final int EXPECTED_LENGTH = 10;
+
+    private final String description;
+
+    ResponseCategory(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @param status The HTTP status code
+     * @param length How many characters were in the body
+     * @param singleLetter Whether every character in the body was the same letter
+     * @return The category that best describes the response; a wrong length
+     *         wins over mixed letters, since /v1 responses are usually both
+     */
+    public static ResponseCategory of(int status, long length, boolean singleLetter) {
+        if (status >= 500 && status < 600) {
+            return SERVER_ERROR;
+        }
+        if (status < 200 || status >= 300) {
+            return OTHER_STATUS;
+        }
+        if (length != EXPECTED_LENGTH) {
+            return WRONG_LENGTH;
+        }
+        return singleLetter ? CORRECT : MIXED_LETTERS;
+    }
+}
@@ -0,0 +1,58 @@
+package edu.wctc.singleton.spammer;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a running count of how many responses fell into each
+ * ResponseCategory. Every category has its own LongAdder, which spreads
+ * increments from different threads across separate cells, so counting
+ * never becomes a point of contention between completing requests.
+ */
+public class ResponseClassifier {
+    private final LongAdder[] counters = new LongAdder[ResponseCategory.values().length];
+
+    public ResponseClassifier() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return The category the response was counted under
+     */
+    public ResponseCategory count(Response response) {
+        ResponseCategory category = response.category();
+        count(category);
+        return category;
+    }
+
+    public void count(ResponseCategory category) {
+        counters[category.ordinal()].increment();
+    }
+
+    /**
+     * @return The totals so far, one entry per category
+     */
+    public Map<ResponseCategory, Long> snapshot() {
+        Map<ResponseCategory, Long> totals = new EnumMap<>(ResponseCategory.class);
+        for (ResponseCategory category : ResponseCategory.values()) {
+            totals.put(category, counters[category.ordinal()].sum());
+        }
+        return totals;
+    }
+
+    /**
+     * Prints one line per category, with its count and share of the total.
+     */
+    public static void print(PrintStream out, Map<ResponseCategory, Long> totals) {
+        long all = totals.values().stream().mapToLong(Long::longValue).sum();
+        for (Map.Entry<ResponseCategory, Long> entry : totals.entrySet()) {
+            double percent = all > 0 ? entry.getValue() * 100.0 / all : 0;
+            out.printf("  %-16s %9d %7.3f%%   %s%n", entry.getKey(), entry.getValue(), percent,
+                    entry.getKey().getDescription());
+        }
+    }
+}
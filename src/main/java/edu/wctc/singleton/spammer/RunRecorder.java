@@ -0,0 +1,104 @@
+package edu.wctc.singleton.spammer;
+
+import edu.wctc.singleton.metrics.LatencyHistogram;
+
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Collects the results of one run. Every thread that completes requests
+ * gets a histogram of its own, so recording a latency never waits on
+ * another thread. Once the run is over, report() adds them all together.
+ */
+public class RunRecorder implements RequestListener {
+    private final String endpoint;
+    private final boolean echo;
+    private final long startNanos = System.nanoTime();
+
+    // Each thread's histogram is also registered here so report() can find
+    // it; the queue is only touched the first time a thread records
+    private final Queue<LatencyHistogram> histograms = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<LatencyHistogram> threadHistogram = ThreadLocal.withInitial(() -> {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histograms.add(histogram);
+        return histogram;
+    });
+
+    // The same again for the server's timings, one histogram per
+    // Server-Timing metric
+    private final Queue<Map<String, LatencyHistogram>> serverTimings = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Map<String, LatencyHistogram>> threadServerTiming = ThreadLocal.withInitial(() -> {
+        Map<String, LatencyHistogram> timing = new LinkedHashMap<>();
+        serverTimings.add(timing);
+        return timing;
+    });
+
+    private final ResponseClassifier classifier = new ResponseClassifier();
+    private final LongAccumulator lastCompletionNanos = new LongAccumulator(Long::max, startNanos);
+
+    /**
+     * @param endpoint The path this run is hitting, e.g. /v3
+     * @param echo Whether to print every response body as it arrives (the
+     *             transport must have been created to keep bodies)
+     */
+    public RunRecorder(String endpoint, boolean echo) {
+        this.endpoint = endpoint;
+        this.echo = echo;
+    }
+
+    @Override
+    public void onResponse(Response response, long latencyNanos) {
+        threadHistogram.get().record(latencyNanos);
+        lastCompletionNanos.accumulate(System.nanoTime());
+        classifier.count(response);
+        if (!response.serverTiming().isEmpty()) {
+            Map<String, LatencyHistogram> timing = threadServerTiming.get();
+            response.serverTiming().forEach((name, nanos) ->
+                    timing.computeIfAbsent(name, n -> new LatencyHistogram()).record(nanos));
+        }
+        if (echo && response.body() != null) {
+            System.out.println(response.body());
+        }
+    }
+
+    @Override
+    public void onError(Throwable error, long latencyNanos) {
+        threadHistogram.get().record(latencyNanos);
+        lastCompletionNanos.accumulate(System.nanoTime());
+        classifier.count(isTimeout(error) ? ResponseCategory.TIMEOUT : ResponseCategory.TRANSPORT_ERROR);
+    }
+
+    // The transports' timeouts usually arrive wrapped, e.g. in a CompletionException
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Only call this once the LoadGenerator has finished the run; the
+     * per-thread histograms are read without any locking.
+     * @param incomplete How many requests never got a response in time
+     */
+    public RunReport report(long incomplete) {
+        long elapsed = lastCompletionNanos.get() - startNanos;
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) {
+            merged.add(histogram);
+        }
+        // Metrics keep the order the server sent them in
+        Map<String, LatencyHistogram> mergedTiming = new LinkedHashMap<>();
+        for (Map<String, LatencyHistogram> timing : serverTimings) {
+            timing.forEach((name, histogram) ->
+                    mergedTiming.computeIfAbsent(name, n -> new LatencyHistogram()).add(histogram));
+        }
+        return new RunReport(endpoint, merged, elapsed, classifier.snapshot(), incomplete, mergedTiming);
+    }
+}
@@ -0,0 +1,119 @@
+package edu.wctc.singleton.spammer;
+
+import edu.wctc.singleton.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The numbers from one finished run.
+ * @param endpoint The path that was tested, e.g. /v3
+ * @param latency Every request's latency, in nanoseconds
+ * @param elapsedNanos Time from the start of the run until the last response
+ * @param categories How many responses fell into each ResponseCategory
+ * @param incomplete Requests that were sent but never finished before the run gave up
+ * @param serverTiming The server's Server-Timing metrics, one histogram per
+ *                     metric name, in nanoseconds; empty if the server sent none
+ */
+public record RunReport(String endpoint, LatencyHistogram latency, long elapsedNanos,
+                        Map<ResponseCategory, Long> categories, long incomplete,
+                        Map<String, LatencyHistogram> serverTiming) {
+
+    private static final String HEADER_FORMAT = "%-20s %9s %10s %9s %9s %9s %9s %9s %7s %7s %10s%n";
+    private static final String ROW_FORMAT = "%-20s %9d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f %7d %7d %10d%n";
+    private static final String TIMING_HEADER_FORMAT = "  %-18s %9s %9s %9s %9s %9s%n";
+    private static final String TIMING_ROW_FORMAT = "  %-18s %9d %9.3f %9.3f %9.3f %9.3f%n";
+
+    /**
+     * @return Requests that finished, one way or another
+     */
+    public long requests() {
+        return latency.getTotalCount();
+    }
+
+    public double throughput() {
+        return elapsedNanos > 0 ? requests() * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * @return Requests that got a non-2xx status, or no response in time or at all
+     */
+    public long errors() {
+        return categories.get(ResponseCategory.SERVER_ERROR)
+                + categories.get(ResponseCategory.OTHER_STATUS)
+                + categories.get(ResponseCategory.TIMEOUT)
+                + categories.get(ResponseCategory.TRANSPORT_ERROR);
+    }
+
+    /**
+     * Prints a one-row table for this run, followed by how many responses
+     * fell into each category and, if the server reported them, where the
+     * server says the time went.
+     */
+    public void print(PrintStream out) {
+        printHeader(out);
+        printRow(out);
+        ResponseClassifier.print(out, categories);
+        printServerTiming(out);
+    }
+
+    /**
+     * The client's latency first, then each Server-Timing metric, so the
+     * gap between "client" and "total" (network, plus anything before the
+     * server started its clock) can be read off directly.
+     */
+    private void printServerTiming(PrintStream out) {
+        if (serverTiming.isEmpty()) {
+            return;
+        }
+        out.println("Server-Timing:");
+        out.printf(TIMING_HEADER_FORMAT, "", "count", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        printTimingRow(out, "client", latency);
+        serverTiming.forEach((name, histogram) -> printTimingRow(out, name, histogram));
+    }
+
+    private static void printTimingRow(PrintStream out, String name, LatencyHistogram histogram) {
+        out.printf(TIMING_ROW_FORMAT, name, histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getMaxValue()));
+    }
+
+    /**
+     * Prints one row per run, so that several endpoints can be compared
+     * side by side.
+     */
+    public static void printAll(PrintStream out, Collection<RunReport> reports) {
+        printHeader(out);
+        for (RunReport report : reports) {
+            report.printRow(out);
+        }
+    }
+
+    private static void printHeader(PrintStream out) {
+        out.printf(HEADER_FORMAT, "", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "wrong", "incomplete");
+    }
+
+    private void printRow(PrintStream out) {
+        out.printf(ROW_FORMAT, endpoint, requests(), throughput(),
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()),
+                errors(), wrong(), incomplete);
+    }
+
+    /**
+     * @return Successful responses whose body was not 10 of one letter
+     */
+    public long wrong() {
+        return categories.get(ResponseCategory.WRONG_LENGTH) + categories.get(ResponseCategory.MIXED_LETTERS);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,50 @@
+package edu.wctc.singleton.spammer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the Server-Timing header StressTestController adds to its
+ * responses, e.g. "queue;dur=0.120, letter;dur=0.004, fill;dur=0.002,
+ * sleep;dur=500.081, build;dur=0.003, log;dur=0.011, total;dur=500.310".
+ * Each entry is a metric name, optionally followed by parameters; only the
+ * "dur" parameter (milliseconds) is used here.
+ */
+public final class ServerTiming {
+    public static final String HEADER = "Server-Timing";
+
+    private ServerTiming() {
+    }
+
+    /**
+     * Entries without a readable duration are skipped, as are repeats of
+     * a name already seen.
+     * @return Each metric's duration in nanoseconds, in the order the
+     *         server listed them; empty if there was no header
+     */
+    public static Map<String, Long> parse(String header) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        if (header == null) {
+            return durations;
+        }
+        for (String entry : header.split(",")) {
+            String[] parts = entry.split(";");
+            String name = parts[0].trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("dur=")) {
+                    try {
+                        double millis = Double.parseDouble(parameter.substring("dur=".length()));
+                        durations.putIfAbsent(name, (long) (millis * 1e6));
+                    } catch (NumberFormatException e) {
+                        // Not a number; leave this entry out
+                    }
+                }
+            }
+        }
+        return durations;
+    }
+}
@@ -0,0 +1,106 @@
+package edu.wctc.singleton.spammer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line settings for RequestSpammer, given as --name=value pairs.
+ * Anything not given keeps its default, so running with no arguments
+ * behaves the way the lab instructions expect.
+ */
+public class SpammerOptions {
+    private String transport = "http";
+    private String baseUrl = "http://localhost:8080";
+    private List<String> suffixes = List.of("");
+    private double rate = 0;
+    private boolean echo = false;
+    private int maxInFlight = 512;
+    private Duration duration = Duration.ZERO;
+    private Duration drainTimeout = Duration.ofMinutes(1);
+    private Duration timeout = Duration.ofSeconds(30);
+
+    public static SpammerOptions parse(String[] args) {
+        SpammerOptions options = new SpammerOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "transport" -> options.transport = value;
+                case "base-url" -> options.baseUrl = value;
+                case "suffix" -> options.suffixes = List.of(value.split(",", -1));
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "echo" -> options.echo = Boolean.parseBoolean(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "drain-timeout" -> options.drainTimeout = Duration.ofSeconds(Long.parseLong(value));
+                case "timeout" -> options.timeout = Duration.ofSeconds(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return options;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * @return Target requests per second, or 0 to send each batch all at once
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * @return Whether every response body should be printed as it arrives
+     */
+    public boolean isEcho() {
+        return echo;
+    }
+
+    /**
+     * @return The most requests that may be waiting for a response at once
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return How long each run keeps sending, or zero to go by request count only
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return How long to wait for outstanding responses after a run stops sending
+     */
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    /**
+     * @return How long any one request may take before it's given up on
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @param version Which controller version to hit
+     * @return One address per --suffix value (several can be given,
+     *         separated by commas), e.g. /v5/synchronized,/v5/thread-local
+     */
+    public List<URI> endpoints(int version) {
+        List<URI> endpoints = new ArrayList<>();
+        for (String suffix : suffixes) {
+            endpoints.add(URI.create(baseUrl + "/v" + version + suffix));
+        }
+        return endpoints;
+    }
+}
@@ -0,0 +1,42 @@
+package edu.wctc.singleton.spammer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The piece of RequestSpammer that actually puts a GET request on the wire.
+ * Keeping it behind an interface lets us swap the in-process HTTP client for
+ * the old "fork a curl process" approach and compare the two.
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * Sends a GET request without blocking the caller.
+     * @param uri The endpoint to hit, e.g. http://localhost:8080/v1
+     * @return A future that completes when the whole response has arrived
+     */
+    CompletableFuture<Response> get(URI uri);
+
+    /**
+     * Releases any threads or connections held by this transport.
+     */
+    @Override
+    void close();
+
+    /**
+     * @param name "http" for the in-process client or "curl" for the legacy mode
+     * @param keepBodies Whether responses should include the body text; when
+     *                   false, bodies are checked as they arrive and then dropped
+     * @param timeout How long a request may take before its future fails
+     *                with an HttpTimeoutException
+     * @return A new transport of the requested kind
+     */
+    static Transport create(String name, boolean keepBodies, Duration timeout) {
+        return switch (name) {
+            case "http" -> new HttpClientTransport(keepBodies, timeout);
+            case "curl" -> new CurlTransport(keepBodies, timeout);
+            default -> throw new IllegalArgumentException("Unknown transport: " + name);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Uses a thread-safe list, CopyOnWriteArrayList, with no other locking.
+ * Every single add or clear is safe, and joining never throws
+ * ConcurrentModificationException, because it reads a frozen copy. But the
+ * sequence of clear, 10 adds and a join is still not one atomic step, so
+ * requests can still see each other's letters. A thread-safe collection
+ * is not the same thing as thread-safe code!
+ */
+@Component
+public class CopyOnWriteStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String getName() {
+        return "copy-on-write";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        return ListFill.fill(sharedList, letter, count, delayMillis);
+    }
+}
@@ -0,0 +1,50 @@
+package edu.wctc.singleton.state;
+
+import edu.wctc.singleton.wal.WriteAheadLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The synchronized strategy, plus durability: every change to the list is
+ * also written to the write-ahead log, and the request isn't answered
+ * until that change is safely on disk.
+ *
+ * The record is queued while the lock is still held, so the log sees the
+ * changes in the same order the list did. The wait for the disk happens
+ * after the lock is released, so other requests can change the list (and
+ * join the same batch) in the meantime. Only present when singleton.wal.file
+ * is set.
+ */
+@Component
+@ConditionalOnProperty(name = "singleton.wal.file")
+public class DurableStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new ArrayList<>();
+    private final WriteAheadLog log;
+
+    public DurableStrategy(WriteAheadLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public String getName() {
+        return "durable";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        String result;
+        CompletableFuture<Long> durable;
+        synchronized (sharedList) {
+            result = ListFill.fill(sharedList, letter, count, delayMillis);
+            // The record is the list's new contents
+            durable = log.append(result.getBytes(StandardCharsets.US_ASCII));
+        }
+        durable.join();
+        return result;
+    }
+}
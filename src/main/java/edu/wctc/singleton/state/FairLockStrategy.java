@@ -0,0 +1,34 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Like the reentrant-lock strategy, but the lock is fair: waiting threads
+ * get the lock strictly in the order they asked for it. Nobody gets
+ * starved, but handing the lock to a sleeping thread instead of whoever is
+ * already running costs a lot of throughput under contention.
+ */
+@Component
+public class FairLockStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    @Override
+    public String getName() {
+        return "fair-lock";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        lock.lock();
+        try {
+            return ListFill.fill(sharedList, letter, count, delayMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.wctc.singleton.state;
+
+import java.util.List;
+
+/**
+ * The clear, add, wait, join sequence from version3, written once so that
+ * each strategy only has to decide what to wrap around it.
+ */
+final class ListFill {
+
+    private ListFill() {
+    }
+
+    static String fill(List<String> list, String letter, int count, long delayMillis) {
+        list.clear();
+
+        for (int i = 0; i < count; i++) {
+            list.add(letter);
+        }
+
+        pause(delayMillis);
+
+        return String.join("", list);
+    }
+
+    static void pause(long delayMillis) {
+        if (delayMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Replaces the list with a ConcurrentLinkedQueue, which never blocks: all
+ * of its operations are built on compare-and-swap. Like the copy-on-write
+ * strategy, each individual operation is safe, but the clear-fill-join
+ * sequence as a whole is not, so letters from different requests still
+ * get mixed together.
+ */
+@Component
+public class LockFreeQueueStrategy implements SharedStateStrategy {
+    private final Queue<String> sharedQueue = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String getName() {
+        return "lock-free-queue";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        sharedQueue.clear();
+
+        for (int i = 0; i < count; i++) {
+            sharedQueue.add(letter);
+        }
+
+        ListFill.pause(delayMillis);
+
+        return String.join("", sharedQueue);
+    }
+}
@@ -0,0 +1,32 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The same one-at-a-time guarantee as the synchronized strategy, using an
+ * explicit ReentrantLock instead of the list's built-in monitor.
+ */
+@Component
+public class ReentrantLockStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Override
+    public String getName() {
+        return "reentrant-lock";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        lock.lock();
+        try {
+            return ListFill.fill(sharedList, letter, count, delayMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+/**
+ * Version 4's approach: a brand new list for every request, which nothing
+ * else can see. Nothing is shared, so there is nothing to protect.
+ */
+@Component
+public class RequestLocalStrategy implements SharedStateStrategy {
+
+    @Override
+    public String getName() {
+        return "request-local";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        return ListFill.fill(new ArrayList<>(), letter, count, delayMillis);
+    }
+}
@@ -0,0 +1,43 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Looks up a SharedStateStrategy by name. Spring finds every strategy bean
+ * and passes them all in, so adding a strategy only takes a new @Component.
+ */
+@Component
+public class SharedStateStrategies {
+    private final Map<String, SharedStateStrategy> byName = new TreeMap<>();
+
+    public SharedStateStrategies(List<SharedStateStrategy> strategies) {
+        for (SharedStateStrategy strategy : strategies) {
+            byName.put(strategy.getName(), strategy);
+        }
+    }
+
+    /**
+     * @return The strategy with that name
+     * @throws ResponseStatusException 404 if there isn't one
+     */
+    public SharedStateStrategy get(String name) {
+        SharedStateStrategy strategy = byName.get(name);
+        if (strategy == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No shared-state strategy named " + name);
+        }
+        return strategy;
+    }
+
+    /**
+     * @return Every strategy name, in alphabetical order
+     */
+    public List<String> getNames() {
+        return List.copyOf(byName.keySet());
+    }
+}
@@ -0,0 +1,26 @@
+package edu.wctc.singleton.state;
+
+/**
+ * One way of handling a list that every request shares. Each
+ * implementation is a singleton bean holding its own list, exactly like
+ * StressTestController's 'sharedList', but each protects that list (or
+ * doesn't) in a different way. Version 5 of the controller picks one by
+ * name so that they can all be load tested side by side.
+ */
+public interface SharedStateStrategy {
+
+    /**
+     * @return The name used in the URL, e.g. /v5/reentrant-lock
+     */
+    String getName();
+
+    /**
+     * Does what version3 does to 'sharedList': clears the list, adds the
+     * letter 'count' times, waits, then joins the list into one String.
+     * @param delayMillis How long to pause between filling and joining; a
+     *                    longer pause makes collisions between requests
+     *                    more likely
+     * @return The joined letters, which should be 'count' copies of 'letter'
+     */
+    String fill(String letter, int count, long delayMillis);
+}
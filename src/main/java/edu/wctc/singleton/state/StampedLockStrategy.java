@@ -0,0 +1,34 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Guards the list with a StampedLock's write lock. StampedLock shines when
+ * most callers only read, because readers can skip locking entirely with
+ * an optimistic read. Every request here writes, though, so this ends up
+ * behaving like the other locks; it's included to show exactly that.
+ */
+@Component
+public class StampedLockStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new ArrayList<>();
+    private final StampedLock lock = new StampedLock();
+
+    @Override
+    public String getName() {
+        return "stamped-lock";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        long stamp = lock.writeLock();
+        try {
+            return ListFill.fill(sharedList, letter, count, delayMillis);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Splits the work the way StampedLock is designed for: the list is
+ * cleared and filled under the write lock, but joined under an optimistic
+ * read, which takes no lock at all and just checks afterward that no
+ * writer got in. If one did, the join is retried under a real read lock.
+ *
+ * Each join is consistent, but it may show the letters of whichever
+ * request wrote last, not the caller's own: the fill and the join are two
+ * separate steps, just like in version3.
+ */
+@Component
+public class StampedOptimisticStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new ArrayList<>();
+    private final StampedLock lock = new StampedLock();
+
+    @Override
+    public String getName() {
+        return "stamped-optimistic";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        long stamp = lock.writeLock();
+        try {
+            sharedList.clear();
+            for (int i = 0; i < count; i++) {
+                sharedList.add(letter);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        ListFill.pause(delayMillis);
+
+        stamp = lock.tryOptimisticRead();
+        String joined = tryJoin();
+        if (joined == null || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                joined = String.join("", sharedList);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return joined;
+    }
+
+    // Without a lock a writer can change the list mid-join, which may throw;
+    // that just means the optimistic attempt failed
+    private String tryJoin() {
+        try {
+            return String.join("", sharedList);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The whole clear-fill-join sequence runs inside a synchronized block, so
+ * only one request at a time can touch the list. Always correct, but every
+ * request waits in line behind the others, including during the pause.
+ */
+@Component
+public class SynchronizedStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new ArrayList<>();
+
+    @Override
+    public String getName() {
+        return "synchronized";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        synchronized (sharedList) {
+            return ListFill.fill(sharedList, letter, count, delayMillis);
+        }
+    }
+}
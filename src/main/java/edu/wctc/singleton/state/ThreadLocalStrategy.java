@@ -0,0 +1,27 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Each thread gets a list of its own, reused for every request that
+ * thread serves. Since a thread only works on one request at a time, no
+ * two requests ever share a list. Correct and lock-free, but the lists
+ * live as long as the threads do.
+ */
+@Component
+public class ThreadLocalStrategy implements SharedStateStrategy {
+    private final ThreadLocal<List<String>> threadList = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String getName() {
+        return "thread-local";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        return ListFill.fill(threadList.get(), letter, count, delayMillis);
+    }
+}
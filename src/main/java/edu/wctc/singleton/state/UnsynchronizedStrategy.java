@@ -0,0 +1,26 @@
+package edu.wctc.singleton.state;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * No protection at all, just like 'sharedList' in versions 1-3. Expect
+ * wrong lengths, mixed letters and the occasional
+ * ConcurrentModificationException.
+ */
+@Component
+public class UnsynchronizedStrategy implements SharedStateStrategy {
+    private final List<String> sharedList = new ArrayList<>();
+
+    @Override
+    public String getName() {
+        return "unsynchronized";
+    }
+
+    @Override
+    public String fill(String letter, int count, long delayMillis) {
+        return ListFill.fill(sharedList, letter, count, delayMillis);
+    }
+}
@@ -0,0 +1,80 @@
+package edu.wctc.singleton.stats;
+
+import edu.wctc.singleton.metrics.ConcurrentLatencyHistogram;
+import edu.wctc.singleton.metrics.LatencyHistogram;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How long the server spends handling each endpoint, in nanoseconds,
+ * since startup and over the last 10 seconds and minute. StatsInterceptor
+ * does the recording; /stats shows the results.
+ */
+@Component
+public class EndpointStats {
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final StatsClock clock;
+
+    public EndpointStats(StatsClock clock) {
+        this.clock = clock;
+        clock.onTick(this::tick);
+    }
+
+    /**
+     * @param endpoint The mapping that handled the request, e.g. /v5/{strategy}
+     */
+    public void record(String endpoint, long nanos) {
+        timers.computeIfAbsent(endpoint, e -> new Timer()).record(clock.currentSecond(), nanos);
+    }
+
+    /**
+     * @return One snapshot per endpoint, sorted by endpoint
+     */
+    public Map<String, Snapshot> snapshot() {
+        long second = clock.currentSecond();
+        Map<String, Snapshot> result = new TreeMap<>();
+        timers.forEach((endpoint, timer) -> result.put(endpoint, timer.snapshot(second)));
+        return result;
+    }
+
+    private void tick(long second) {
+        for (Timer timer : timers.values()) {
+            timer.recent.tick(second);
+        }
+    }
+
+    /**
+     * One endpoint's numbers at one moment.
+     * @param total Every request since startup
+     * @param sumNanos The time all of those took, added up
+     * @param last10Seconds Requests that finished in about the last 10 seconds
+     * @param lastMinute Requests that finished in about the last minute
+     */
+    public record Snapshot(LatencyHistogram total, long sumNanos,
+                           LatencyHistogram last10Seconds, LatencyHistogram lastMinute) {
+    }
+
+    private static final class Timer {
+        private final ConcurrentLatencyHistogram total = new ConcurrentLatencyHistogram();
+        private final LongAdder sumNanos = new LongAdder();
+        private final RollingHistogram recent = new RollingHistogram();
+
+        void record(long second, long nanos) {
+            total.record(nanos);
+            sumNanos.add(nanos);
+            recent.record(second, nanos);
+        }
+
+        Snapshot snapshot(long second) {
+            LatencyHistogram all = new LatencyHistogram();
+            total.copyInto(all);
+            return new Snapshot(all, sumNanos.sum(), recent.lastSeconds(second, 10),
+                    recent.lastSeconds(second, RollingHistogram.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package edu.wctc.singleton.stats;
+
+import edu.wctc.singleton.spammer.ResponseCategory;
+import org.springframework.stereotype.Component;
+
+import java.util.ConcurrentModificationException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts, on the server, how often the shared-list endpoints give a wrong
+ * answer. RequestSpammer can only see the responses that make it back to
+ * it; this sees every request, whoever sent it, and keeps a per-second
+ * rate, so runs with more threads or more cores can be compared directly.
+ *
+ * A response is judged the same way RequestSpammer judges it (see
+ * ResponseCategory). Exceptions are counted by type, since a
+ * ConcurrentModificationException and an ArrayIndexOutOfBoundsException
+ * are different races: one reader caught a writer mid-change, the other
+ * had two writers trip over each other.
+ *
+ * Every count is a LongAdder, which gives each contending thread its own
+ * cell, so counting a race doesn't add a new one.
+ */
+@Component
+public class RaceAnomalies {
+
+    /**
+     * The ways a shared-list request can go wrong.
+     */
+    public enum Kind {
+        WRONG_LENGTH,
+        MIXED_LETTERS,
+        CONCURRENT_MODIFICATION,
+        INDEX_OUT_OF_BOUNDS
+    }
+
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+    private final StatsClock clock;
+
+    public RaceAnomalies(StatsClock clock) {
+        this.clock = clock;
+        clock.onTick(this::tick);
+    }
+
+    /**
+     * Judges one response body and counts it.
+     * @param endpoint The mapping that produced it, e.g. /v3
+     * @return How RequestSpammer would have categorized it
+     */
+    public ResponseCategory check(String endpoint, String body) {
+        ResponseCategory category = ResponseCategory.of(200, body.length(), isSingleLetter(body));
+        Counters endpointCounters = counters(endpoint);
+        endpointCounters.requests.increment();
+        switch (category) {
+            case WRONG_LENGTH -> endpointCounters.count(Kind.WRONG_LENGTH, clock.currentSecond());
+            case MIXED_LETTERS -> endpointCounters.count(Kind.MIXED_LETTERS, clock.currentSecond());
+            default -> {
+            }
+        }
+        return category;
+    }
+
+    /**
+     * Counts a request that failed with an exception.
+     * @return What kind of race it was, or null if the exception isn't one
+     *         this class counts (the request is still counted)
+     */
+    public Kind failed(String endpoint, Throwable error) {
+        Counters endpointCounters = counters(endpoint);
+        endpointCounters.requests.increment();
+        Kind kind = kindOf(error);
+        if (kind != null) {
+            endpointCounters.count(kind, clock.currentSecond());
+        }
+        return kind;
+    }
+
+    /**
+     * @return One snapshot per endpoint, sorted by endpoint
+     */
+    public Map<String, Snapshot> snapshot() {
+        long second = clock.currentSecond();
+        Map<String, Snapshot> result = new TreeMap<>();
+        counters.forEach((endpoint, c) -> result.put(endpoint, c.snapshot(second)));
+        return result;
+    }
+
+    /**
+     * One endpoint's counts at one moment.
+     * @param requests Requests checked since startup, right or wrong
+     * @param anomalies How many of those went wrong, in each way
+     * @param perSecond10s Anomalies per second over the last 10 whole seconds
+     * @param perSecond1m Anomalies per second over the last 60 whole seconds
+     */
+    public record Snapshot(long requests, Map<Kind, Long> anomalies, double perSecond10s, double perSecond1m) {
+
+        public long totalAnomalies() {
+            return anomalies.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private Counters counters(String endpoint) {
+        return counters.computeIfAbsent(endpoint, e -> new Counters());
+    }
+
+    private void tick(long second) {
+        for (Counters c : counters.values()) {
+            c.recent.tick(second);
+        }
+    }
+
+    private static Kind kindOf(Throwable error) {
+        if (error instanceof ConcurrentModificationException) {
+            return Kind.CONCURRENT_MODIFICATION;
+        }
+        // ArrayList usually throws ArrayIndexOutOfBoundsException, but
+        // some of its paths check first and throw the parent class
+        if (error instanceof IndexOutOfBoundsException) {
+            return Kind.INDEX_OUT_OF_BOUNDS;
+        }
+        return null;
+    }
+
+    private static boolean isSingleLetter(String body) {
+        if (body.isEmpty()) {
+            return false;
+        }
+        char first = body.charAt(0);
+        for (int i = 1; i < body.length(); i++) {
+            if (body.charAt(i) != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Counters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder[] kinds = new LongAdder[Kind.values().length];
+        private final RollingCounter recent = new RollingCounter();
+
+        Counters() {
+            for (int i = 0; i < kinds.length; i++) {
+                kinds[i] = new LongAdder();
+            }
+        }
+
+        void count(Kind kind, long second) {
+            kinds[kind.ordinal()].increment();
+            recent.increment(second);
+        }
+
+        Snapshot snapshot(long second) {
+            Map<Kind, Long> anomalies = new EnumMap<>(Kind.class);
+            for (Kind kind : Kind.values()) {
+                anomalies.put(kind, kinds[kind.ordinal()].sum());
+            }
+            return new Snapshot(requests.sum(), anomalies, recent.perSecond(second, 10),
+                    recent.perSecond(second, RollingCounter.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package edu.wctc.singleton.stats;
+
+import edu.wctc.singleton.StressTestController;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ConcurrentModificationException;
+import java.util.Set;
+
+/**
+ * Hands RaceAnomalies every response, and every race exception, from the
+ * StressTestController endpoints that share sharedList. Spring calls this
+ * on the way out of the handler, so the handlers themselves stay as they
+ * were; for /v3/async that's once the delayed result is ready.
+ */
+@ControllerAdvice(assignableTypes = StressTestController.class)
+public class RaceAnomalyAdvice implements ResponseBodyAdvice<Object> {
+    // The endpoints that should return 10 of one letter but share a list
+    // with each other while doing it
+    static final Set<String> CHECKED_ENDPOINTS = Set.of("/v1", "/v2", "/v3", "/v3/async");
+
+    private final RaceAnomalies anomalies;
+
+    public RaceAnomalyAdvice(RaceAnomalies anomalies) {
+        this.anomalies = anomalies;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof String text && request instanceof ServletServerHttpRequest servletRequest) {
+            String endpoint = checkedEndpoint(servletRequest.getServletRequest());
+            if (endpoint != null) {
+                anomalies.check(endpoint, text);
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Counts the exception, then throws it again, so the client still gets
+     * the same 500 it always did.
+     */
+    @ExceptionHandler({ConcurrentModificationException.class, IndexOutOfBoundsException.class})
+    public void countRace(RuntimeException e, HttpServletRequest request) {
+        String endpoint = checkedEndpoint(request);
+        if (endpoint != null) {
+            anomalies.failed(endpoint, e);
+        }
+        throw e;
+    }
+
+    private static String checkedEndpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof String endpoint && CHECKED_ENDPOINTS.contains(endpoint) ? endpoint : null;
+    }
+}
@@ -0,0 +1,55 @@
+package edu.wctc.singleton.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count over the last minute, one second at a time; the counting
+ * version of RollingHistogram, and ticked the same way. There is one more
+ * slice than there are seconds in a minute, so that a full minute of
+ * finished seconds can be read while the current one is still filling up.
+ */
+public class RollingCounter {
+    public static final int SECONDS = 60;
+    private static final int SLICES = SECONDS + 1;
+
+    private final LongAdder[] slices = new LongAdder[SLICES];
+
+    public RollingCounter() {
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param second The current time in whole seconds, from any fixed starting point
+     */
+    public void increment(long second) {
+        slices[slot(second)].increment();
+    }
+
+    /**
+     * Empties the slice for the second after this one.
+     */
+    public void tick(long second) {
+        slices[slot(second + 1)].reset();
+    }
+
+    /**
+     * @param seconds How far back to look, up to SECONDS; the current,
+     *                unfinished second is left out, so the result isn't
+     *                dragged down by a second that has barely started
+     * @return The average count per second over that time
+     */
+    public double perSecond(long second, int seconds) {
+        int n = Math.min(seconds, SECONDS);
+        long sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += slices[slot(second - i)].sum();
+        }
+        return (double) sum / n;
+    }
+
+    private static int slot(long second) {
+        return (int) Math.floorMod(second, (long) SLICES);
+    }
+}
@@ -0,0 +1,60 @@
+package edu.wctc.singleton.stats;
+
+import edu.wctc.singleton.metrics.ConcurrentLatencyHistogram;
+import edu.wctc.singleton.metrics.LatencyHistogram;
+
+/**
+ * The values recorded over the last minute, one second at a time. There
+ * are one-second histograms arranged in a ring, and each value goes into
+ * the one for the current second. Reading the last N seconds means adding
+ * up the N most recent slices.
+ *
+ * Every second, tick() empties the slice that the NEXT second will use,
+ * which still holds values from a minute ago. Nothing on the recording
+ * path ever has to check whether its slice is stale. That slice can't be
+ * part of the window, so there is one more slice than there are seconds
+ * in a minute; with only 60, a minute's window would really cover 59.
+ */
+public class RollingHistogram {
+    public static final int SECONDS = 60;
+    private static final int SLICES = SECONDS + 1;
+
+    private final ConcurrentLatencyHistogram[] slices = new ConcurrentLatencyHistogram[SLICES];
+
+    public RollingHistogram() {
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new ConcurrentLatencyHistogram();
+        }
+    }
+
+    /**
+     * @param second The current time in whole seconds, from any fixed starting point
+     */
+    public void record(long second, long value) {
+        slices[slot(second)].record(value);
+    }
+
+    /**
+     * Empties the slice for the second after this one.
+     */
+    public void tick(long second) {
+        slices[slot(second + 1)].reset();
+    }
+
+    /**
+     * @param seconds How far back to look, up to SECONDS; the current,
+     *                unfinished second counts as one of them
+     * @return Everything recorded in that time
+     */
+    public LatencyHistogram lastSeconds(long second, int seconds) {
+        LatencyHistogram window = new LatencyHistogram();
+        for (int i = 0; i < Math.min(seconds, SECONDS); i++) {
+            slices[slot(second - i)].copyInto(window);
+        }
+        return window;
+    }
+
+    private static int slot(long second) {
+        return (int) Math.floorMod(second, (long) SLICES);
+    }
+}
@@ -0,0 +1,53 @@
+package edu.wctc.singleton.stats;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * The clock behind the rolling windows: whole seconds since startup, and
+ * one background thread that tells every window when a second is over so
+ * it can clear the slice it will need next.
+ */
+@Component
+public class StatsClock implements AutoCloseable {
+    private final long startNanos = System.nanoTime();
+    private final List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "stats-ticker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatsClock() {
+        ticker.scheduleAtFixedRate(this::tick, 0, 1, TimeUnit.SECONDS);
+    }
+
+    public long currentSecond() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @param listener Called once a second, on the ticker thread, with the current second
+     */
+    public void onTick(LongConsumer listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        long second = currentSecond();
+        for (LongConsumer listener : listeners) {
+            listener.accept(second);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package edu.wctc.singleton.stats;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Shows the server-side handling times EndpointStats has collected for
+ * each of StressTestController's endpoints, and the wrong answers
+ * RaceAnomalies has counted.
+ */
+@Controller
+public class StatsController {
+    private final EndpointStats stats;
+    private final RaceAnomalies anomalies;
+
+    public StatsController(EndpointStats stats, RaceAnomalies anomalies) {
+        this.stats = stats;
+        this.anomalies = anomalies;
+    }
+
+    /**
+     * @return Count, percentiles and max per endpoint, in milliseconds,
+     * since startup and for the last 10 seconds and minute
+     */
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public String json() {
+        return StatsFormat.toJson(stats.snapshot());
+    }
+
+    /**
+     * @return How often each shared-list endpoint has gone wrong, and in
+     * which ways, with the server's core count alongside
+     */
+    @GetMapping(value = "/stats/anomalies", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public String anomalies() {
+        return StatsFormat.anomaliesToJson(anomalies.snapshot(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return The numbers from both of the above, in the format Prometheus scrapes
+     */
+    @GetMapping(value = "/stats/prometheus", produces = "text/plain; version=0.0.4")
+    @ResponseBody
+    public String prometheus() {
+        return StatsFormat.toPrometheus(stats.snapshot()) + StatsFormat.anomaliesToPrometheus(anomalies.snapshot());
+    }
+}
@@ -0,0 +1,171 @@
+package edu.wctc.singleton.stats;
+
+import edu.wctc.singleton.metrics.LatencyHistogram;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns EndpointStats and RaceAnomalies snapshots into JSON and into Prometheus's text
+ * format. Both are simple enough to write by hand, which saves pulling in
+ * a metrics library for a handful of numbers.
+ */
+final class StatsFormat {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p999"};
+    private static final String METRIC = "singleton_request_duration_seconds";
+    private static final String ANOMALIES = "singleton_race_anomalies_total";
+    private static final String CHECKED = "singleton_race_checked_requests_total";
+    private static final String ANOMALY_RATE = "singleton_race_anomalies_per_second";
+
+    private StatsFormat() {
+    }
+
+    /**
+     * Times are in milliseconds, e.g.
+     * {"/v1":{"total":{"count":3,"p50":1.2,...,"max":4.5},"10s":{...},"1m":{...}}}
+     */
+    static String toJson(Map<String, EndpointStats.Snapshot> snapshots) {
+        StringBuilder json = new StringBuilder("{");
+        String separator = "";
+        for (Map.Entry<String, EndpointStats.Snapshot> entry : snapshots.entrySet()) {
+            EndpointStats.Snapshot snapshot = entry.getValue();
+            json.append(separator).append(quote(entry.getKey())).append(":{");
+            appendWindow(json, "total", snapshot.total());
+            json.append(',');
+            appendWindow(json, "10s", snapshot.last10Seconds());
+            json.append(',');
+            appendWindow(json, "1m", snapshot.lastMinute());
+            json.append('}');
+            separator = ",";
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * One summary per endpoint, in seconds. The quantiles carry a "window"
+     * label (10s or 1m); _count and _sum cover everything since startup,
+     * as Prometheus expects.
+     */
+    static String toPrometheus(Map<String, EndpointStats.Snapshot> snapshots) {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP ").append(METRIC)
+                .append(" Time StressTestController spent handling each request.\n");
+        text.append("# TYPE ").append(METRIC).append(" summary\n");
+        for (Map.Entry<String, EndpointStats.Snapshot> entry : snapshots.entrySet()) {
+            String endpoint = label(entry.getKey());
+            EndpointStats.Snapshot snapshot = entry.getValue();
+            appendQuantiles(text, endpoint, "10s", snapshot.last10Seconds());
+            appendQuantiles(text, endpoint, "1m", snapshot.lastMinute());
+            text.append(METRIC).append("_count{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(snapshot.total().getTotalCount()).append('\n');
+            text.append(METRIC).append("_sum{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(seconds(snapshot.sumNanos())).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Rates are anomalies per second, e.g.
+     * {"cores":8,"endpoints":{"/v3":{"requests":100,"anomalies":2,"WRONG_LENGTH":1,...,
+     * "perSecond10s":0.1,"perSecond1m":0.033}}}
+     */
+    static String anomaliesToJson(Map<String, RaceAnomalies.Snapshot> snapshots, int cores) {
+        StringBuilder json = new StringBuilder("{\"cores\":").append(cores).append(",\"endpoints\":{");
+        String separator = "";
+        for (Map.Entry<String, RaceAnomalies.Snapshot> entry : snapshots.entrySet()) {
+            RaceAnomalies.Snapshot snapshot = entry.getValue();
+            json.append(separator).append(quote(entry.getKey()))
+                    .append(":{\"requests\":").append(snapshot.requests())
+                    .append(",\"anomalies\":").append(snapshot.totalAnomalies());
+            for (Map.Entry<RaceAnomalies.Kind, Long> kind : snapshot.anomalies().entrySet()) {
+                json.append(',').append(quote(kind.getKey().name())).append(':').append(kind.getValue());
+            }
+            json.append(",\"perSecond10s\":").append(rate(snapshot.perSecond10s()))
+                    .append(",\"perSecond1m\":").append(rate(snapshot.perSecond1m())).append('}');
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * A counter per endpoint and kind of anomaly, a counter of requests
+     * checked, and the recent rates as a gauge with a "window" label.
+     */
+    static String anomaliesToPrometheus(Map<String, RaceAnomalies.Snapshot> snapshots) {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP ").append(ANOMALIES).append(" Shared-list responses that were wrong, by kind.\n");
+        text.append("# TYPE ").append(ANOMALIES).append(" counter\n");
+        snapshots.forEach((endpoint, snapshot) -> snapshot.anomalies().forEach((kind, count) ->
+                text.append(ANOMALIES).append("{endpoint=\"").append(label(endpoint)).append("\",kind=\"")
+                        .append(kind.name().toLowerCase(Locale.ROOT)).append("\"} ").append(count).append('\n')));
+        text.append("# HELP ").append(CHECKED).append(" Shared-list responses checked, right or wrong.\n");
+        text.append("# TYPE ").append(CHECKED).append(" counter\n");
+        snapshots.forEach((endpoint, snapshot) ->
+                text.append(CHECKED).append("{endpoint=\"").append(label(endpoint)).append("\"} ")
+                        .append(snapshot.requests()).append('\n'));
+        text.append("# HELP ").append(ANOMALY_RATE).append(" Recent shared-list anomalies per second.\n");
+        text.append("# TYPE ").append(ANOMALY_RATE).append(" gauge\n");
+        snapshots.forEach((endpoint, snapshot) -> {
+            text.append(ANOMALY_RATE).append("{endpoint=\"").append(label(endpoint)).append("\",window=\"10s\"} ")
+                    .append(rate(snapshot.perSecond10s())).append('\n');
+            text.append(ANOMALY_RATE).append("{endpoint=\"").append(label(endpoint)).append("\",window=\"1m\"} ")
+                    .append(rate(snapshot.perSecond1m())).append('\n');
+        });
+        return text.toString();
+    }
+
+    private static void appendWindow(StringBuilder json, String name, LatencyHistogram histogram) {
+        json.append(quote(name)).append(":{\"count\":").append(histogram.getTotalCount());
+        for (int i = 0; i < QUANTILES.length; i++) {
+            json.append(",\"").append(QUANTILE_NAMES[i]).append("\":")
+                    .append(millis(histogram.getValueAtPercentile(QUANTILES[i] * 100)));
+        }
+        json.append(",\"max\":").append(millis(histogram.getMaxValue())).append('}');
+    }
+
+    private static void appendQuantiles(StringBuilder text, String endpoint, String window,
+                                        LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            text.append(METRIC).append("{endpoint=\"").append(endpoint).append("\",window=\"").append(window)
+                    .append("\",quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String rate(double perSecond) {
+        return String.format(Locale.ROOT, "%.3f", perSecond);
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static String quote(String s) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    // Prometheus label values escape backslashes, quotes and newlines
+    private static String label(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
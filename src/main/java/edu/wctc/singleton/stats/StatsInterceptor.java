@@ -0,0 +1,54 @@
+package edu.wctc.singleton.stats;
+
+import edu.wctc.singleton.StressTestController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times every request StressTestController handles, from the moment Spring
+ * hands it to the controller until the response is complete, and records
+ * it under the handler's URL pattern (/v5/{strategy} rather than
+ * /v5/synchronized). This is server-side service time: it leaves out the
+ * network and any time the request spent waiting for a Tomcat thread, so
+ * comparing it with RequestSpammer's numbers shows where the time goes.
+ *
+ * The async endpoints pass through here twice: once when the handler
+ * returns its CompletableFuture, and again when the result is ready. The
+ * start time is only taken the first time, and the time is only recorded
+ * once the request is really done.
+ */
+public class StatsInterceptor implements AsyncHandlerInterceptor {
+    private static final String START_ATTRIBUTE = StatsInterceptor.class.getName() + ".start";
+
+    private final EndpointStats stats;
+
+    public StatsInterceptor(EndpointStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isTimed(handler) && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null && isTimed(handler)) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            stats.record(String.valueOf(pattern), System.nanoTime() - (Long) start);
+        }
+    }
+
+    private static boolean isTimed(Object handler) {
+        return handler instanceof HandlerMethod method
+                && StressTestController.class.isAssignableFrom(method.getBeanType());
+    }
+}
@@ -0,0 +1,22 @@
+package edu.wctc.singleton.stats;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts StatsInterceptor in front of every handler.
+ */
+@Configuration
+public class StatsWebConfiguration implements WebMvcConfigurer {
+    private final EndpointStats stats;
+
+    public StatsWebConfiguration(EndpointStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatsInterceptor(stats));
+    }
+}
@@ -0,0 +1,28 @@
+package edu.wctc.singleton.timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks after a delay without tying up a thread while waiting. This
+ * is what lets the async versions of the endpoints simulate a slow request
+ * without sleeping on a Tomcat worker thread.
+ */
+public interface DelayScheduler {
+
+    /**
+     * Runs the task once the delay has passed. The task runs on the
+     * scheduler's own thread, so it should be quick.
+     */
+    void schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * @return A future that completes, on the scheduler's thread, once the
+     *         delay has passed
+     */
+    default CompletableFuture<Void> after(long delay, TimeUnit unit) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        schedule(() -> future.complete(null), delay, unit);
+        return future;
+    }
+}
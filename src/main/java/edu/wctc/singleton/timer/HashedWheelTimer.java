@@ -0,0 +1,218 @@
+package edu.wctc.singleton.timer;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A DelayScheduler built like a clock face. Time is cut into ticks (1 ms,
+ * say), and the wheel has one bucket per tick. A task due N ticks from now
+ * goes into the bucket N positions ahead of the hand; if N is bigger than
+ * the wheel, it also remembers how many full turns to wait. On every tick
+ * the worker thread moves the hand one bucket and runs whatever is due.
+ *
+ * Compare that to ScheduledThreadPoolExecutor, which keeps every pending
+ * task in one priority queue behind one lock: each insert costs O(log n)
+ * and every request thread fights over that lock. Here, scheduling is an
+ * O(1) append to a lock-free queue, and only the worker thread ever touches
+ * the buckets. The price is precision: tasks run up to one tick late.
+ *
+ * Closing the timer drops the tasks that haven't run yet, and cancels the
+ * futures after() returned for them, so nothing waits forever on a timer
+ * that has stopped.
+ */
+public class HashedWheelTimer implements DelayScheduler, AutoCloseable {
+    // Upper limit on how many newly scheduled tasks are moved into the
+    // wheel per tick, so a flood of new tasks can't delay expiring old ones
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Only read and written by the worker thread
+    private long tick;
+
+    /**
+     * @param tickDuration How long each tick lasts; tasks can run up to this much late
+     * @param ticksPerWheel How many buckets the wheel has; rounded up to a power of two
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+
+        worker = new Thread(this::run, "hashed-wheel-timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        add(new Timeout(task, null, deadline(delay, unit)));
+    }
+
+    @Override
+    public CompletableFuture<Void> after(long delay, TimeUnit unit) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        add(new Timeout(() -> future.complete(null), future, deadline(delay, unit)));
+        return future;
+    }
+
+    /**
+     * Stops the worker thread and waits for it to cancel whatever was still
+     * waiting to run.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        if (Thread.currentThread() != worker) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long deadline(long delay, TimeUnit unit) {
+        return System.nanoTime() - startNanos + unit.toNanos(delay);
+    }
+
+    private void add(Timeout timeout) {
+        if (!running) {
+            throw new IllegalStateException("Timer has been closed");
+        }
+        incoming.add(timeout);
+        if (!running) {
+            // close() came in between, and the worker may already have
+            // cancelled everything that was waiting, so this one is on us
+            cancelIncoming();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long tickEnd = startNanos + tickNanos * (tick + 1);
+            long remaining;
+            while (running && (remaining = tickEnd - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+            transferIncoming();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+        cancelIncoming();
+        for (Bucket bucket : wheel) {
+            bucket.cancelAll();
+        }
+    }
+
+    // Any thread can do this, since polling the queue is thread-safe
+    private void cancelIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void transferIncoming() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = incoming.poll();
+            if (timeout == null) {
+                return;
+            }
+            long dueTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            // Anything already overdue goes in the current bucket and runs now
+            long bucketTick = Math.max(dueTick, tick);
+            wheel[(int) (bucketTick & mask)].add(timeout);
+        }
+    }
+
+    private static final class Timeout {
+        private final Runnable task;
+        // The future from after(), or null for a plain schedule()
+        private final CompletableFuture<Void> future;
+        private final long deadline;
+        private long remainingRounds;
+        private Timeout next;
+
+        private Timeout(Runnable task, CompletableFuture<Void> future, long deadline) {
+            this.task = task;
+            this.future = future;
+            this.deadline = deadline;
+        }
+
+        void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * A singly linked list of timeouts. Only the worker thread uses it, so
+     * it needs no locking.
+     */
+    private static final class Bucket {
+        private Timeout head;
+
+        void add(Timeout timeout) {
+            timeout.next = head;
+            head = timeout;
+        }
+
+        void expire() {
+            Timeout previous = null;
+            Timeout current = head;
+            while (current != null) {
+                Timeout next = current.next;
+                if (current.remainingRounds <= 0) {
+                    if (previous == null) {
+                        head = next;
+                    } else {
+                        previous.next = next;
+                    }
+                    current.next = null;
+                    runSafely(current.task);
+                } else {
+                    current.remainingRounds--;
+                    previous = current;
+                }
+                current = next;
+            }
+        }
+
+        void cancelAll() {
+            for (Timeout timeout = head; timeout != null; timeout = timeout.next) {
+                timeout.cancel();
+            }
+            head = null;
+        }
+
+        private static void runSafely(Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // One bad task must not stop the clock for everyone else
+                Thread.currentThread().getUncaughtExceptionHandler()
+                        .uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+}
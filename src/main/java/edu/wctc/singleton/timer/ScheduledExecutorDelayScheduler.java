@@ -0,0 +1,47 @@
+package edu.wctc.singleton.timer;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A DelayScheduler backed by a single-threaded ScheduledExecutorService.
+ * Pending tasks wait in the executor's priority queue, so one thread can
+ * look after any number of delayed requests.
+ *
+ * The thread is started right away, while Spring creates the bean, rather
+ * than by the first schedule() call. Started from a Tomcat request thread,
+ * it would pick up the web application's class loader, and Tomcat would
+ * warn about a possible memory leak when it shut down.
+ */
+public class ScheduledExecutorDelayScheduler implements DelayScheduler, AutoCloseable {
+    private final ScheduledThreadPoolExecutor executor;
+
+    public ScheduledExecutorDelayScheduler() {
+        ClassLoader loader = getClass().getClassLoader();
+        executor = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "delay-scheduler");
+            thread.setDaemon(true);
+            thread.setContextClassLoader(loader);
+            return thread;
+        });
+        executor.prestartAllCoreThreads();
+    }
+
+    @Override
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        executor.schedule(task, delay, unit);
+    }
+
+    /**
+     * Drops any waits still pending and stops the thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
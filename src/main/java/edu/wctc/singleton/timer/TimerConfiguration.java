@@ -0,0 +1,33 @@
+package edu.wctc.singleton.timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides the one DelayScheduler shared by every async endpoint. Set
+ * singleton.timer=hashed-wheel to use a HashedWheelTimer instead of the
+ * default ScheduledExecutorService, which matters once hundreds of
+ * thousands of delayed requests are pending at the same time.
+ */
+@Configuration
+public class TimerConfiguration {
+
+    // Both are closed with the context, which stops their threads
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "singleton.timer", havingValue = "scheduled-executor", matchIfMissing = true)
+    public DelayScheduler delayScheduler() {
+        return new ScheduledExecutorDelayScheduler();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "singleton.timer", havingValue = "hashed-wheel")
+    public DelayScheduler hashedWheelDelayScheduler(
+            @Value("${singleton.timer.tick-millis:1}") long tickMillis,
+            @Value("${singleton.timer.ticks-per-wheel:1024}") int ticksPerWheel) {
+        return new HashedWheelTimer(tickMillis, TimeUnit.MILLISECONDS, ticksPerWheel);
+    }
+}
@@ -0,0 +1,14 @@
+package edu.wctc.singleton.timing;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Phase.BUILD as a JFR event.
+ */
+@Name("edu.wctc.singleton.BuildOutput")
+@Label("Build Output")
+@Description("Reading the request's list back to build the response.")
+public class BuildOutputEvent extends PhaseEvent {
+}
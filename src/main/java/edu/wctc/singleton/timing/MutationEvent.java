@@ -0,0 +1,14 @@
+package edu.wctc.singleton.timing;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Phase.FILL as a JFR event.
+ */
+@Name("edu.wctc.singleton.Mutation")
+@Label("List Mutation")
+@Description("Clearing the request's list, shared or not, and adding letters to it, one event per run of changes.")
+public class MutationEvent extends PhaseEvent {
+}
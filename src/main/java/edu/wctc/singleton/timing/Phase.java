@@ -0,0 +1,60 @@
+package edu.wctc.singleton.timing;
+
+import jdk.jfr.EventType;
+
+import java.util.function.Supplier;
+
+/**
+ * The parts a request is timed in. Each one becomes an entry in the
+ * Server-Timing header, under its metric name, and the ones that run
+ * handler code are also recorded as JFR events.
+ *
+ * Most of them aren't timed inside the handlers themselves: the shared
+ * list, the DelayScheduler and the RequestLog are wrapped (see
+ * ServerTimingPostProcessor), so the time is noted wherever a handler
+ * hands work to one of them. The rest go through RequestPhases.
+ */
+public enum Phase {
+    /** Waiting for a Tomcat thread, after the request had arrived */
+    QUEUE("queue", null, null),
+    /** getRandomLetter() */
+    LETTER("letter", null, null),
+    /** Clearing the list, and adding letters to it */
+    FILL("fill", MutationEvent.class, MutationEvent::new),
+    /** The artificial delay, whether a sleep or a scheduled wait */
+    SLEEP("sleep", SleepEvent.class, SleepEvent::new),
+    /** Reading the list back to build the output */
+    BUILD("build", BuildOutputEvent.class, BuildOutputEvent::new),
+    /** Handing the response to the RequestLog */
+    LOG("log", ResponseLogEvent.class, ResponseLogEvent::new);
+
+    private final String metricName;
+    private final EventType eventType;
+    private final Supplier<PhaseEvent> eventFactory;
+
+    Phase(String metricName, Class<? extends PhaseEvent> eventClass, Supplier<PhaseEvent> eventFactory) {
+        this.metricName = metricName;
+        this.eventType = eventClass == null ? null : EventType.getEventType(eventClass);
+        this.eventFactory = eventFactory;
+    }
+
+    /**
+     * @return Whether a running recording wants this phase's event; cheap
+     *         enough to ask before deciding whether to time anything at all
+     */
+    boolean isEventEnabled() {
+        return eventType != null && eventType.isEnabled();
+    }
+
+    /**
+     * @return A new, not yet started event for this phase, or null if
+     *         this phase has no event or no recording wants it
+     */
+    PhaseEvent newEvent() {
+        return isEventEnabled() ? eventFactory.get() : null;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,43 @@
+package edu.wctc.singleton.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event covering one Phase of one request. JFR
+ * already records the thread each event ends on and when it started and
+ * stopped, so a recording can line these up with GC pauses, safepoints and
+ * lock contention on the same thread at the same moment.
+ *
+ * Stack traces are off: every event comes from the same few wrapper
+ * methods, and leaving them out keeps each event cheap enough to record
+ * all the time. Events only cost anything while a recording
+ * that includes them is running.
+ */
+@Category({"Singleton", "StressTestController"})
+@StackTrace(false)
+public abstract class PhaseEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("List Size")
+    int listSize;
+
+    @Label("Request Thread")
+    Thread requestThread;
+
+    /**
+     * @param endpoint The request's path, e.g. /v5/synchronized, or null outside a request
+     * @param listSize How many letters the phase's list held when it finished, or -1 if none
+     * @param requestThread The thread that first picked up the request; differs from
+     *                      the event's own thread once an async request has moved on
+     */
+    void set(String endpoint, int listSize, Thread requestThread) {
+        this.endpoint = endpoint;
+        this.listSize = listSize;
+        this.requestThread = requestThread;
+    }
+}
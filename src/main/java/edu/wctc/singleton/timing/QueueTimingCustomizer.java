@@ -0,0 +1,81 @@
+package edu.wctc.singleton.timing;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.management.ObjectName;
+import java.util.concurrent.Executor;
+
+/**
+ * Puts a QueueTimingExecutor in front of Tomcat's worker threads, whichever
+ * kind they are.
+ *
+ * Normally Tomcat only creates its thread pool when it starts, so there's
+ * nothing to wrap yet when Spring Boot configures it. In that case this
+ * gives the connector a Tomcat StandardThreadExecutor with the same sizes
+ * instead, and adds it to the connector's Service. The Service starts and
+ * stops it along with the connector, so it goes away with the server (on a
+ * devtools restart, say) and shows up in Tomcat's thread stats the way its
+ * own pool would. With virtual threads turned on, the virtual thread
+ * executor is wrapped instead. Running last means the server.tomcat.threads
+ * settings and VirtualThreadConfiguration have already been applied.
+ */
+@Component
+public class QueueTimingCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory>, Ordered {
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addConnectorCustomizers(connector -> {
+            ProtocolHandler handler = connector.getProtocolHandler();
+            Executor executor = handler.getExecutor();
+            if (executor == null && handler instanceof AbstractProtocol<?> protocol) {
+                executor = newWorkerPool(connector, protocol);
+            }
+            if (executor != null) {
+                handler.setExecutor(new QueueTimingExecutor(executor));
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    // The same sizes AbstractEndpoint.createExecutor() would use
+    private static Executor newWorkerPool(Connector connector, AbstractProtocol<?> protocol) {
+        WorkerPool pool = new WorkerPool(protocol);
+        pool.setName(protocol.getClass().getSimpleName() + "-workers-" + protocol.getNameIndex());
+        pool.setMaxThreads(protocol.getMaxThreads());
+        pool.setMinSpareThreads(protocol.getMinSpareThreads());
+        pool.setThreadPriority(protocol.getThreadPriority());
+        connector.getService().addExecutor(pool);
+        return pool;
+    }
+
+    /**
+     * Names its threads the way Tomcat names its own pool's, e.g.
+     * http-nio-8080-exec-1. The name is only worked out when the pool
+     * starts, as Tomcat does, so that server.port=0 doesn't end up in it.
+     */
+    private static class WorkerPool extends StandardThreadExecutor {
+        private final AbstractProtocol<?> protocol;
+
+        WorkerPool(AbstractProtocol<?> protocol) {
+            this.protocol = protocol;
+        }
+
+        @Override
+        protected void startInternal() throws LifecycleException {
+            setNamePrefix(ObjectName.unquote(protocol.getName()) + "-exec-");
+            super.startInternal();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.wctc.singleton.timing;
+
+import org.apache.tomcat.util.threads.ResizableExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Wraps the executor Tomcat hands its connections to, and notes how long
+ * each task sat in the queue before a thread picked it up. When all 200
+ * worker threads are busy (say, sleeping in version4), a newly arrived
+ * request waits here, and that wait is invisible to anything that only
+ * starts timing once the request reaches the application.
+ *
+ * The wait is kept in a ThreadLocal for the duration of the task, for
+ * ServerTimingFilter to pick up with takeQueueNanos().
+ *
+ * It passes Tomcat's questions about pool size and busy threads on to the
+ * executor it wraps, so the connector's thread stats still work. Virtual
+ * threads have no pool, so there the answers are -1, as they would be
+ * without the wrapper.
+ */
+public class QueueTimingExecutor implements ResizableExecutor {
+    private static final ThreadLocal<long[]> QUEUE_NANOS = ThreadLocal.withInitial(() -> new long[]{-1});
+
+    private final Executor delegate;
+
+    public QueueTimingExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submitted = System.nanoTime();
+        delegate.execute(() -> {
+            long[] queueNanos = QUEUE_NANOS.get();
+            queueNanos[0] = System.nanoTime() - submitted;
+            try {
+                task.run();
+            } finally {
+                queueNanos[0] = -1;
+            }
+        });
+    }
+
+    /**
+     * Tomcat can handle several requests from one connection in a single
+     * task, so the wait is only handed out once; the requests after the
+     * first didn't wait for a thread.
+     * @return How long the current task waited for this thread, or -1 if
+     *         it has already been taken or the thread isn't running a task
+     */
+    public static long takeQueueNanos() {
+        long[] queueNanos = QUEUE_NANOS.get();
+        long value = queueNanos[0];
+        queueNanos[0] = -1;
+        return value;
+    }
+
+    public Executor getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return delegate instanceof ResizableExecutor pool ? pool.getPoolSize() : -1;
+    }
+
+    @Override
+    public int getMaxThreads() {
+        return delegate instanceof ResizableExecutor pool ? pool.getMaxThreads() : -1;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return delegate instanceof ResizableExecutor pool ? pool.getActiveCount() : -1;
+    }
+
+    @Override
+    public boolean resizePool(int corePoolSize, int maximumPoolSize) {
+        return delegate instanceof ResizableExecutor pool && pool.resizePool(corePoolSize, maximumPoolSize);
+    }
+
+    @Override
+    public boolean resizeQueue(int capacity) {
+        return delegate instanceof ResizableExecutor pool && pool.resizeQueue(capacity);
+    }
+}
@@ -0,0 +1,45 @@
+package edu.wctc.singleton.timing;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Timing for the phases of a request that don't go through one of the
+ * wrapped beans (see ServerTimingPostProcessor): picking the letter, a
+ * list the handler makes for itself, and sleeping. Each one is a single
+ * call, so the handlers read almost as they would without it.
+ */
+public final class RequestPhases {
+
+    private RequestPhases() {
+    }
+
+    /**
+     * Picks the letter, timed as Phase.LETTER.
+     */
+    public static String letter(Supplier<String> pick) {
+        return RequestTiming.time(Phase.LETTER, null, pick);
+    }
+
+    /**
+     * @return The list, wrapped so that filling it and reading it back are
+     *         timed the same way as for the shared list
+     */
+    public static List<String> local(List<String> list) {
+        return new TimedList(list);
+    }
+
+    /**
+     * Thread.sleep, timed as Phase.SLEEP.
+     * @param list The list the request is working on, whose size goes in
+     *             the JFR event, or null
+     * @throws RuntimeException If the thread is interrupted while asleep
+     */
+    public static void sleep(long millis, List<?> list) {
+        try (RequestTiming.Scope ignored = RequestTiming.start(Phase.SLEEP, list)) {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package edu.wctc.singleton.timing;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * How long one request spent in each Phase. ServerTimingFilter creates one
+ * for every request and makes it the current one on whichever thread is
+ * handling the request. The wrappers ServerTimingPostProcessor puts around
+ * the handlers' collaborators time their work with time() or run(), and
+ * the filter turns the result into a Server-Timing header. Each phase is
+ * also recorded as a JFR event (see PhaseEvent), which costs nothing
+ * unless a flight recording is running.
+ *
+ * Calls that come in quick runs, like the clear and the 10 adds that fill
+ * the shared list, are timed with startRunCall() and endRunCall() instead.
+ *
+ * When there is no current request (a benchmark calling a handler's
+ * helpers directly, say), runs aren't timed, and time() and run() just do
+ * the work unless a flight recording wants the phase's event.
+ */
+public final class RequestTiming {
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String path;
+    private final long startNanos;
+    private final Thread thread = Thread.currentThread();
+    // A request only runs on one thread at a time, and Tomcat's hand-offs
+    // between threads make earlier writes visible, so these need no locking
+    private final long[] nanos = new long[PHASES.length];
+    private int recorded;
+    // The run of calls being timed as one stretch, if any
+    private Phase runPhase;
+    private List<?> runList;
+    private PhaseEvent runEvent;
+    private long runStartNanos;
+    private long runEndNanos;
+
+    /**
+     * @param path The request's path, e.g. /v5/synchronized
+     * @param startNanos When the server started working on it, from System.nanoTime()
+     *                   (the calling thread is taken to be the one handling it)
+     */
+    public RequestTiming(String path, long startNanos) {
+        this.path = path;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * @return The timing for the request this thread is handling, or null
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the supplier and adds how long it took to the current request's
+     * phase.
+     * @param list The list the phase works on, whose size is recorded with
+     *             the phase's JFR event, or null
+     */
+    static <T> T time(Phase phase, List<?> list, Supplier<T> work) {
+        if (CURRENT.get() == null && !phase.isEventEnabled()) {
+            return work.get();
+        }
+        try (Scope ignored = start(phase, list)) {
+            return work.get();
+        }
+    }
+
+    /**
+     * Runs the work and adds how long it took to the current request's phase.
+     */
+    static void run(Phase phase, Runnable work) {
+        if (CURRENT.get() == null && !phase.isEventEnabled()) {
+            work.run();
+            return;
+        }
+        try (Scope ignored = start(phase, null)) {
+            work.run();
+        }
+    }
+
+    /**
+     * Starts timing a phase that doesn't fit in one block, such as a
+     * delay that ends on another thread. The time is added once the scope
+     * is closed.
+     * @param list The list the phase works on, or null
+     */
+    static Scope start(Phase phase, List<?> list) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.endRun();
+        }
+        PhaseEvent event = phase.newEvent();
+        if (event != null) {
+            event.begin();
+        }
+        return new Scope(timing, phase, list, event, System.nanoTime());
+    }
+
+    /**
+     * Starts a call that belongs to a run of calls to the same phase. A run
+     * is timed as one stretch, from the start of its first call to the end
+     * of its last, and is one JFR event. That costs a single System.nanoTime()
+     * per call, where timing each call on its own would cost two and an
+     * event, and would stretch the very races version2 and version3 are
+     * there to show. A run ends when another phase starts, or when the
+     * header is written.
+     * @param list The list the run works on, whose size is recorded with
+     *             the run's JFR event
+     * @return The current request's timing, for endRunCall() once the call
+     *         is done (even if it threw), or null if there is no current request
+     */
+    static RequestTiming startRunCall(Phase phase, List<?> list) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.runPhase != phase) {
+            timing.endRun();
+            timing.runPhase = phase;
+            timing.runList = list;
+            timing.runEvent = phase.newEvent();
+            if (timing.runEvent != null) {
+                timing.runEvent.begin();
+            }
+            timing.runStartNanos = System.nanoTime();
+        }
+        return timing;
+    }
+
+    /**
+     * Ends a call that startRunCall() started. The run now ends here,
+     * unless another call extends it.
+     */
+    void endRunCall() {
+        runEndNanos = System.nanoTime();
+        if (runEvent != null) {
+            runEvent.end();
+        }
+    }
+
+    private void endRun() {
+        if (runPhase == null) {
+            return;
+        }
+        add(runPhase, runEndNanos - runStartNanos);
+        if (runEvent != null && runEvent.shouldCommit()) {
+            runEvent.set(path, runList.size(), thread);
+            runEvent.commit();
+        }
+        runPhase = null;
+        runList = null;
+        runEvent = null;
+    }
+
+    /**
+     * Makes the timing current on this thread.
+     * @return Whatever was current before, to be put back afterwards
+     */
+    static RequestTiming bind(RequestTiming timing) {
+        RequestTiming previous = CURRENT.get();
+        if (timing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(timing);
+        }
+        return previous;
+    }
+
+    public void add(Phase phase, long phaseNanos) {
+        nanos[phase.ordinal()] += phaseNanos;
+        recorded |= 1 << phase.ordinal();
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Ends any run still going, so its time is included.
+     * @return Every phase that happened, in order, then the total so far,
+     *         in milliseconds, e.g. "fill;dur=0.004, build;dur=0.002, total;dur=0.031"
+     */
+    public String toHeader(long nowNanos) {
+        endRun();
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : PHASES) {
+            if ((recorded & 1 << phase.ordinal()) != 0) {
+                appendMetric(header, phase.getMetricName(), nanos[phase.ordinal()]);
+                header.append(", ");
+            }
+        }
+        appendMetric(header, "total", nowNanos - startNanos);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long metricNanos) {
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", metricNanos / 1e6));
+    }
+
+    /**
+     * One phase being timed. Closing it twice only counts it once.
+     */
+    static final class Scope implements AutoCloseable {
+        private final RequestTiming timing;
+        private final Phase phase;
+        private final List<?> list;
+        private final PhaseEvent event;
+        private final long startNanos;
+        private boolean closed;
+
+        private Scope(RequestTiming timing, Phase phase, List<?> list, PhaseEvent event, long startNanos) {
+            this.timing = timing;
+            this.phase = phase;
+            this.list = list;
+            this.event = event;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (timing != null) {
+                timing.add(phase, System.nanoTime() - startNanos);
+            }
+            if (event != null) {
+                event.end();
+                // Fields are only filled in for events the recording will
+                // keep, e.g. ones over its duration threshold
+                if (event.shouldCommit()) {
+                    event.set(timing == null ? null : timing.path, list == null ? -1 : list.size(),
+                            timing == null ? Thread.currentThread() : timing.thread);
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package edu.wctc.singleton.timing;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Phase.LOG as a JFR event.
+ */
+@Name("edu.wctc.singleton.ResponseLog")
+@Label("Response Logging")
+@Description("Handing the response to the RequestLog.")
+public class ResponseLogEvent extends PhaseEvent {
+}
@@ -0,0 +1,64 @@
+package edu.wctc.singleton.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Starts a RequestTiming as soon as a request reaches the application, and
+ * makes it current on the thread handling it. Async requests come through
+ * here again when their result is ready, on a different thread; the same
+ * RequestTiming is picked up from the request and made current there.
+ *
+ * The response is wrapped in a ServerTimingResponse, which adds the
+ * Server-Timing header just before the body starts. The total therefore
+ * covers everything up to that point, but not the queue wait or sending
+ * the body. A response with no body at all (a 304, say) gets the header
+ * once the handler is done.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Taken on every dispatch, so an async dispatch's wait can't be
+        // mistaken for a later request's
+        long queueNanos = QueueTimingExecutor.takeQueueNanos();
+        RequestTiming timing = (RequestTiming) request.getAttribute(ATTRIBUTE);
+        if (timing == null) {
+            timing = new RequestTiming(request.getRequestURI(), System.nanoTime());
+            if (queueNanos >= 0) {
+                timing.add(Phase.QUEUE, queueNanos);
+            }
+            request.setAttribute(ATTRIBUTE, timing);
+            // An async dispatch gets the response the request was started
+            // with, which is already this wrapper
+            response = new ServerTimingResponse(response, timing);
+        }
+
+        RequestTiming previous = RequestTiming.bind(timing);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTiming.bind(previous);
+        }
+        if (!request.isAsyncStarted() && response instanceof ServerTimingResponse timed) {
+            timed.addTimingHeader();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package edu.wctc.singleton.timing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Adds the Server-Timing header the moment the body is about to start: the
+ * first time anything asks for the output stream or writer, flushes, or
+ * sends an error or redirect. Headers can't be added once the body has
+ * started, and every kind of handler gets to its body through one of
+ * these, whether it returns a String, a StreamingResponseBody, or writes
+ * to the response itself.
+ */
+class ServerTimingResponse extends HttpServletResponseWrapper {
+    private final RequestTiming timing;
+    private boolean headerAdded;
+
+    ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+        super(response);
+        this.timing = timing;
+    }
+
+    /**
+     * Adds the header, unless it has been added already or it's too late.
+     */
+    void addTimingHeader() {
+        if (!headerAdded && !isCommitted()) {
+            headerAdded = true;
+            addHeader(RequestTiming.HEADER, timing.toHeader(System.nanoTime()));
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        addTimingHeader();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        addTimingHeader();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        addTimingHeader();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        addTimingHeader();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        addTimingHeader();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        addTimingHeader();
+        super.sendRedirect(location);
+    }
+}
@@ -0,0 +1,14 @@
+package edu.wctc.singleton.timing;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Phase.SLEEP as a JFR event.
+ */
+@Name("edu.wctc.singleton.Sleep")
+@Label("Artificial Delay")
+@Description("A handler's artificial delay, whether a Thread.sleep or an async handler's scheduled wait.")
+public class SleepEvent extends PhaseEvent {
+}
@@ -0,0 +1,74 @@
+package edu.wctc.singleton.timing;
+
+import edu.wctc.singleton.timer.DelayScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the DelayScheduler. The wait from scheduling a task until it runs
+ * is timed as Phase.SLEEP, and the task runs with the request's timing
+ * current. A handler's after(...).thenApply(...) callback runs when the
+ * future completes, on the scheduler's thread, so its buildOutput() and log
+ * call are timed as part of the same request without the handler doing
+ * anything.
+ *
+ * after() is passed on to the wrapped scheduler's own after(), rather than
+ * built on schedule(), so a scheduler that cancels its futures on close
+ * still does.
+ */
+class TimedDelayScheduler implements DelayScheduler, AutoCloseable {
+    private final DelayScheduler scheduler;
+
+    TimedDelayScheduler(DelayScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        Wait wait = new Wait();
+        scheduler.schedule(() -> wait.over(task), delay, unit);
+    }
+
+    @Override
+    public CompletableFuture<Void> after(long delay, TimeUnit unit) {
+        Wait wait = new Wait();
+        CompletableFuture<Void> timed = new CompletableFuture<>();
+        scheduler.after(delay, unit).whenComplete((ignored, error) -> wait.over(() -> {
+            if (error == null) {
+                timed.complete(null);
+            } else {
+                timed.completeExceptionally(error);
+            }
+        }));
+        return timed;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (scheduler instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * One wait, started on the request's thread.
+     */
+    private static final class Wait {
+        private final RequestTiming timing = RequestTiming.current();
+        private final RequestTiming.Scope scope = RequestTiming.start(Phase.SLEEP, null);
+
+        /**
+         * Ends the wait, then runs what comes next as part of the request.
+         */
+        void over(Runnable next) {
+            scope.close();
+            RequestTiming previous = RequestTiming.bind(timing);
+            try {
+                next.run();
+            } finally {
+                RequestTiming.bind(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package edu.wctc.singleton.timing;
+
+import edu.wctc.singleton.list.LetterList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * Wraps a shared LetterList. Adding and clearing are timed as a run of
+ * Phase.FILL calls, and toLetterString(), which is how buildOutput() reads
+ * a LetterList, as Phase.BUILD. Because it is still a LetterList, the
+ * handlers take the same fast paths (toLetterString, writeTo, freeze) they
+ * would without it.
+ *
+ * Streaming the letters out with writeTo isn't timed: it happens while the
+ * body is being sent, after the Server-Timing header has gone.
+ */
+class TimedLetterList extends LetterList implements AutoCloseable {
+    private final LetterList letters;
+
+    TimedLetterList(LetterList letters) {
+        this.letters = letters;
+    }
+
+    @Override
+    public void appendLetters(char letter, int count) {
+        RequestTiming timing = RequestTiming.startRunCall(Phase.FILL, letters);
+        try {
+            letters.appendLetters(letter, count);
+        } finally {
+            if (timing != null) {
+                timing.endRunCall();
+            }
+        }
+    }
+
+    @Override
+    public boolean add(String letter) {
+        RequestTiming timing = RequestTiming.startRunCall(Phase.FILL, letters);
+        try {
+            return letters.add(letter);
+        } finally {
+            if (timing != null) {
+                timing.endRunCall();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        RequestTiming timing = RequestTiming.startRunCall(Phase.FILL, letters);
+        try {
+            letters.clear();
+        } finally {
+            if (timing != null) {
+                timing.endRunCall();
+            }
+        }
+    }
+
+    @Override
+    public String toLetterString() {
+        return RequestTiming.time(Phase.BUILD, letters, letters::toLetterString);
+    }
+
+    @Override
+    public char charAt(int index) {
+        return letters.charAt(index);
+    }
+
+    @Override
+    public String get(int index) {
+        return letters.get(index);
+    }
+
+    @Override
+    public int size() {
+        return letters.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return letters.iterator();
+    }
+
+    @Override
+    public ListIterator<String> listIterator() {
+        return letters.listIterator();
+    }
+
+    @Override
+    public ListIterator<String> listIterator(int index) {
+        return letters.listIterator(index);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        letters.writeTo(out);
+    }
+
+    @Override
+    public void writeTo(OutputStream out, int from, int to) throws IOException {
+        letters.writeTo(out, from, to);
+    }
+
+    @Override
+    public long getVersion() {
+        return letters.getVersion();
+    }
+
+    @Override
+    public Snapshot freeze() {
+        return letters.freeze();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (letters instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package edu.wctc.singleton.timing;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Wraps a list that isn't a LetterList: the shared list when it's an
+ * ArrayList, say, or a handler's own (see RequestPhases.local). Adding
+ * and clearing are timed as a run of Phase.FILL calls, and a full pass of
+ * an iterator, which is how String.join reads the list, as Phase.BUILD.
+ *
+ * Everything is passed straight on to the list, iterators included, so it
+ * races exactly as it would unwrapped: the same
+ * ConcurrentModificationExceptions and ArrayIndexOutOfBoundsExceptions
+ * come out of it.
+ */
+class TimedList extends AbstractList<String> implements AutoCloseable {
+    private final List<String> list;
+
+    TimedList(List<String> list) {
+        this.list = list;
+    }
+
+    @Override
+    public boolean add(String letter) {
+        RequestTiming timing = RequestTiming.startRunCall(Phase.FILL, list);
+        try {
+            return list.add(letter);
+        } finally {
+            if (timing != null) {
+                timing.endRunCall();
+            }
+        }
+    }
+
+    @Override
+    public void add(int index, String letter) {
+        RequestTiming timing = RequestTiming.startRunCall(Phase.FILL, list);
+        try {
+            list.add(index, letter);
+        } finally {
+            if (timing != null) {
+                timing.endRunCall();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        RequestTiming timing = RequestTiming.startRunCall(Phase.FILL, list);
+        try {
+            list.clear();
+        } finally {
+            if (timing != null) {
+                timing.endRunCall();
+            }
+        }
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new TimedIterator(list.iterator(), RequestTiming.start(Phase.BUILD, list));
+    }
+
+    @Override
+    public ListIterator<String> listIterator() {
+        return list.listIterator();
+    }
+
+    @Override
+    public ListIterator<String> listIterator(int index) {
+        return list.listIterator(index);
+    }
+
+    @Override
+    public String get(int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public String set(int index, String letter) {
+        return list.set(index, letter);
+    }
+
+    @Override
+    public String remove(int index) {
+        return list.remove(index);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (list instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Stops the clock when it runs out of elements. One that is abandoned
+     * part way, or that throws, isn't counted.
+     */
+    private static final class TimedIterator implements Iterator<String> {
+        private final Iterator<String> iterator;
+        private final RequestTiming.Scope scope;
+
+        TimedIterator(Iterator<String> iterator, RequestTiming.Scope scope) {
+            this.iterator = iterator;
+            this.scope = scope;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean more = iterator.hasNext();
+            if (!more) {
+                scope.close();
+            }
+            return more;
+        }
+
+        @Override
+        public String next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package edu.wctc.singleton.timing;
+
+import edu.wctc.singleton.log.RequestLog;
+
+/**
+ * Wraps the RequestLog, timing each line handed to it as Phase.LOG.
+ */
+class TimedRequestLog implements RequestLog, AutoCloseable {
+    private final RequestLog log;
+
+    TimedRequestLog(RequestLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public void log(int id, String message) {
+        RequestTiming.run(Phase.LOG, () -> log.log(id, message));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (log instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
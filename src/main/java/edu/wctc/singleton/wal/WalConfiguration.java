@@ -0,0 +1,30 @@
+package edu.wctc.singleton.wal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the WriteAheadLog used by the "durable" shared-state strategy,
+ * but only when singleton.wal.file names a file to write it to. The
+ * batching can be tuned with singleton.wal.max-batch-size and
+ * singleton.wal.max-wait-micros; watch /wal/stats while load testing to
+ * see what each setting does.
+ */
+@Configuration
+@ConditionalOnProperty(name = "singleton.wal.file")
+public class WalConfiguration {
+
+    @Bean
+    public WriteAheadLog writeAheadLog(
+            @Value("${singleton.wal.file}") Path file,
+            @Value("${singleton.wal.max-batch-size:1024}") int maxBatchSize,
+            @Value("${singleton.wal.max-wait-micros:200}") long maxWaitMicros) throws IOException {
+        return new WriteAheadLog(file, maxBatchSize, maxWaitMicros, TimeUnit.MICROSECONDS);
+    }
+}
@@ -0,0 +1,41 @@
+package edu.wctc.singleton.wal;
+
+import edu.wctc.singleton.metrics.LatencyHistogram;
+
+import java.io.PrintWriter;
+
+/**
+ * A snapshot of how a WriteAheadLog has been batching.
+ * @param records Records written since the log was opened
+ * @param batchSizes How many records went into each batch
+ * @param forceNanos How long each batch's force (fsync) took, in nanoseconds
+ */
+public record WalStats(long records, LatencyHistogram batchSizes, LatencyHistogram forceNanos) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public long batches() {
+        return batchSizes.getTotalCount();
+    }
+
+    /**
+     * Prints the record and batch counts, then both histograms as
+     * percentiles, one per line.
+     */
+    public void print(PrintWriter out) {
+        out.printf("records  %d%n", records);
+        out.printf("batches  %d (%.1f records per batch on average)%n", batches(),
+                batches() > 0 ? (double) records / batches() : 0);
+        out.printf("%n%-8s %12s %14s%n", "", "batch size", "fsync ms");
+        for (double percentile : PERCENTILES) {
+            out.printf("%-8s %12d %14.3f%n", "p" + formatPercentile(percentile),
+                    batchSizes.getValueAtPercentile(percentile),
+                    forceNanos.getValueAtPercentile(percentile) / 1e6);
+        }
+        out.printf("%-8s %12d %14.3f%n", "max", batchSizes.getMaxValue(), forceNanos.getMaxValue() / 1e6);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,31 @@
+package edu.wctc.singleton.wal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Shows how the write-ahead log has been batching: how many records each
+ * fsync covered, and how long the fsyncs took.
+ */
+@Controller
+@ConditionalOnProperty(name = "singleton.wal.file")
+public class WalStatsController {
+    private final WriteAheadLog log;
+
+    public WalStatsController(WriteAheadLog log) {
+        this.log = log;
+    }
+
+    @GetMapping("/wal/stats")
+    @ResponseBody
+    public String stats() {
+        StringWriter text = new StringWriter();
+        log.getStats().print(new PrintWriter(text));
+        return text.toString();
+    }
+}
@@ -0,0 +1,313 @@
+package edu.wctc.singleton.wal;
+
+import edu.wctc.singleton.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log file where a record only counts as written once it
+ * is really on disk. Getting it there takes an fsync (FileChannel.force),
+ * which can take milliseconds, so doing one per request would cap the
+ * whole server at a few hundred requests per second.
+ *
+ * Instead, request threads only put their records in a queue. One writer
+ * thread takes everything that is waiting (up to maxBatchSize records,
+ * waiting up to maxWait for more to show up), writes it all, and forces
+ * once for the whole batch. This is called group commit: the busier the
+ * server, the bigger the batches, and the less each fsync costs per
+ * request. Each record's future completes only after its batch has been
+ * forced.
+ *
+ * Every record is stored as its length, a CRC32 of its bytes, and the
+ * bytes themselves, so a record that was only half written when the power
+ * went out can be recognized (see readAll). Opening the log cuts such a
+ * record off before anything new is appended; otherwise readAll would stop
+ * at it and never see the records written after it.
+ */
+public class WriteAheadLog implements AutoCloseable {
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final long POLL_MILLIS = 100;
+
+    private final FileChannel channel;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Set once the writer thread has stopped taking records from the queue
+    private volatile boolean stopped;
+    // Set if a failed batch couldn't be cut back off the end of the file;
+    // after that, nothing appended could be read back, so nothing is
+    private volatile IOException failure;
+
+    // Guarded by 'this'; written by the writer thread, read by getStats()
+    private final LatencyHistogram batchSizes = new LatencyHistogram();
+    private final LatencyHistogram forceNanos = new LatencyHistogram();
+    private long records;
+
+    /**
+     * @param path The log file; created if missing, appended to if not
+     *             (after cutting off a torn record at the end, if there is one)
+     * @param maxBatchSize The most records written and forced together
+     * @param maxWait How long the writer may wait for a batch to fill up
+     *                before forcing what it has; 0 never waits, so a batch
+     *                is whatever piled up during the previous force
+     */
+    public WriteAheadLog(Path path, int maxBatchSize, long maxWait, TimeUnit unit) throws IOException {
+        if (maxBatchSize <= 0 || maxWait < 0) {
+            throw new IllegalArgumentException("Batch size must be positive and the wait not negative");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = scan(readFully(channel), null);
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+
+        writer = new Thread(this::run, "wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a record to be written.
+     * @return Completes with the record's sequence number (0 for the
+     * first record written since the log was opened) once it is on disk,
+     * or exceptionally if it couldn't be written
+     */
+    public CompletableFuture<Long> append(byte[] record) {
+        if (!running) {
+            throw new IllegalStateException("Log has been closed");
+        }
+        if (failure != null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        Pending pending = new Pending(record, new CompletableFuture<>());
+        queue.add(pending);
+        // The log may have been closed since the check above. If the
+        // writer has already stopped, it won't see this record, so fail it
+        // here; if not, the writer fails it (or writes it) on its way out.
+        if (stopped) {
+            pending.durable.completeExceptionally(new IllegalStateException("Log has been closed"));
+        }
+        return pending.durable;
+    }
+
+    /**
+     * @return Batch sizes and force times so far, copied so they can be
+     * read while the log keeps going
+     */
+    public synchronized WalStats getStats() {
+        LatencyHistogram sizes = new LatencyHistogram();
+        sizes.add(batchSizes);
+        LatencyHistogram forces = new LatencyHistogram();
+        forces.add(forceNanos);
+        return new WalStats(records, sizes, forces);
+    }
+
+    /**
+     * Writes and forces whatever is still queued, then closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Reads every complete record in a log file, in order. Reading stops at
+     * the first record that is cut short or fails its CRC check, which is
+     * what the end of the file looks like after a crash mid-write.
+     */
+    public static List<byte[]> readAll(Path path) throws IOException {
+        List<byte[]> result = new ArrayList<>();
+        scan(ByteBuffer.wrap(Files.readAllBytes(path)), result);
+        return result;
+    }
+
+    /**
+     * Checks records from the start of the file until one is cut short or
+     * fails its CRC check.
+     * @param records Where to put the good records, or null to only check them
+     * @return Where the last good record ends
+     */
+    private static long scan(ByteBuffer file, List<byte[]> records) {
+        CRC32 crc = new CRC32();
+        long end = 0;
+        while (file.remaining() >= RECORD_HEADER_SIZE) {
+            int length = file.getInt();
+            int checksum = file.getInt();
+            if (length < 0 || length > file.remaining()) {
+                break;
+            }
+            byte[] record = new byte[length];
+            file.get(record);
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            if (records != null) {
+                records.add(record);
+            }
+            end = file.position();
+        }
+        return end;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Log file is too big to check: " + size + " bytes");
+        }
+        ByteBuffer file = ByteBuffer.allocate((int) size);
+        while (file.hasRemaining() && channel.read(file, file.position()) >= 0) {
+            // read() moves the buffer's position along
+        }
+        return file.flip();
+    }
+
+    // The writer thread. It is never interrupted, because interrupting a
+    // thread in the middle of a FileChannel write closes the channel.
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        long sequence = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                if (commit(batch, sequence)) {
+                    sequence += batch.size();
+                }
+            } catch (InterruptedException e) {
+                // Not expected (see above), but don't leave anyone waiting
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Anything added after the last poll, by an append() that raced
+        // with close(), would otherwise wait forever
+        stopped = true;
+        IllegalStateException closed = new IllegalStateException("Log has been closed");
+        for (Pending pending; (pending = queue.poll()) != null; ) {
+            pending.durable.completeExceptionally(failure != null ? failure : closed);
+        }
+    }
+
+    private void fillBatch(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            // Everything already waiting comes along for free
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    // Returns whether the batch made it to disk
+    private boolean commit(List<Pending> batch, long firstSequence) {
+        if (failure != null) {
+            for (Pending pending : batch) {
+                pending.durable.completeExceptionally(failure);
+            }
+            return false;
+        }
+        long batchStart = -1;
+        try {
+            batchStart = channel.position();
+            int total = 0;
+            for (Pending pending : batch) {
+                total += RECORD_HEADER_SIZE + pending.record.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(total);
+            CRC32 crc = new CRC32();
+            for (Pending pending : batch) {
+                crc.reset();
+                crc.update(pending.record);
+                buffer.putInt(pending.record.length).putInt((int) crc.getValue()).put(pending.record);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            long start = System.nanoTime();
+            channel.force(false);
+            long elapsed = System.nanoTime() - start;
+
+            synchronized (this) {
+                batchSizes.record(batch.size());
+                forceNanos.record(elapsed);
+                records += batch.size();
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).durable.complete(firstSequence + i);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Cut off whatever part of the batch made it into the file, so
+            // the next batch starts where a reader can find it
+            discardFrom(batchStart, e);
+            for (Pending pending : batch) {
+                pending.durable.completeExceptionally(e);
+            }
+            return false;
+        }
+    }
+
+    private void discardFrom(long batchStart, Exception cause) {
+        try {
+            if (batchStart < 0) {
+                throw new IOException("Log position unknown", cause);
+            }
+            channel.truncate(batchStart);
+            channel.position(batchStart);
+        } catch (IOException e) {
+            failure = new IOException("Log failed and could not be repaired; no more records are accepted", e);
+        }
+    }
+
+    private record Pending(byte[] record, CompletableFuture<Long> durable) {
+    }
+}
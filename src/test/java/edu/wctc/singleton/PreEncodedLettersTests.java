@@ -0,0 +1,51 @@
+package edu.wctc.singleton;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreEncodedLettersTests {
+
+    @Test
+    void everyPayloadIsTenOfOneLetter() throws IOException {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < PreEncodedLetters.LETTER_COUNT; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PreEncodedLetters.write(out, i);
+            String payload = out.toString();
+            assertEquals(String.valueOf((char) ('A' + i)).repeat(10), payload);
+            seen.add(payload);
+        }
+        assertEquals(26, seen.size());
+    }
+
+    @Test
+    void writingAllocatesAlmostNothing() throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        OutputStream out = OutputStream.nullOutputStream();
+        int calls = 100_000;
+
+        // Warm up first so the measurement doesn't include class loading
+        for (int i = 0; i < calls; i++) {
+            PreEncodedLetters.write(out, PreEncodedLetters.randomIndex());
+        }
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < calls; i++) {
+            PreEncodedLetters.write(out, PreEncodedLetters.randomIndex());
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < calls, () -> allocated + " bytes allocated for " + calls + " writes");
+    }
+}
@@ -0,0 +1,110 @@
+package edu.wctc.singleton;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A LetterList, so /v1/state has snapshots and ETags to work with
+@SpringBootTest(properties = "singleton.shared-list=append-only")
+@AutoConfigureMockMvc
+class StressTestControllerTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    private String state;
+    private String etag;
+
+    @BeforeEach
+    void appendAndRead() throws Exception {
+        mvc.perform(get("/v1")).andExpect(status().isOk());
+        MvcResult result = perform(get("/v1/state"));
+        assertEquals(200, result.getResponse().getStatus());
+        state = result.getResponse().getContentAsString();
+        etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+    }
+
+    @Test
+    void unchangedStateIsNotModified() throws Exception {
+        mvc.perform(get("/v1/state").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void appendingChangesTheETag() throws Exception {
+        mvc.perform(get("/v1")).andExpect(status().isOk());
+        MvcResult result = perform(get("/v1/state").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(200, result.getResponse().getStatus());
+        assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(state.length() + 10, result.getResponse().getContentAsString().length());
+    }
+
+    @Test
+    void rangeFromAnOffsetSendsTheRest() throws Exception {
+        int from = state.length() - 10;
+        MvcResult result = perform(get("/v1/state").header(HttpHeaders.RANGE, "bytes=" + from + "-"));
+        assertEquals(206, result.getResponse().getStatus());
+        assertEquals("bytes " + from + "-" + (state.length() - 1) + "/" + state.length(),
+                result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(state.substring(from), result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void suffixRangeSendsTheEnd() throws Exception {
+        MvcResult result = perform(get("/v1/state").header(HttpHeaders.RANGE, "bytes=-4"));
+        assertEquals(206, result.getResponse().getStatus());
+        assertEquals("bytes " + (state.length() - 4) + "-" + (state.length() - 1) + "/" + state.length(),
+                result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(state.substring(state.length() - 4), result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        mvc.perform(get("/v1/state").header(HttpHeaders.RANGE, "bytes=" + state.length() + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + state.length()));
+        mvc.perform(get("/v1/state").header(HttpHeaders.RANGE, "bytes=" + (state.length() + 100) + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void multipleRangesSendEverything() throws Exception {
+        assertWholeState(perform(get("/v1/state").header(HttpHeaders.RANGE, "bytes=0-1,4-5")));
+    }
+
+    @Test
+    void malformedRangeSendsEverything() throws Exception {
+        assertWholeState(perform(get("/v1/state").header(HttpHeaders.RANGE, "letters=0-1")));
+        assertWholeState(perform(get("/v1/state").header(HttpHeaders.RANGE, "bytes=5-2")));
+    }
+
+    private void assertWholeState(MvcResult result) throws Exception {
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(state, result.getResponse().getContentAsString());
+    }
+
+    // The body is streamed, so it's only written once the async part is dispatched
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package edu.wctc.singleton.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AppendOnlyLetterListTests {
+
+    @Test
+    void behavesLikeAnArrayListOfLetters() throws IOException {
+        List<String> expected = new ArrayList<>();
+        AppendOnlyLetterList letters = new AppendOnlyLetterList();
+        Random random = new Random(42);
+
+        for (int request = 0; request < 5_000; request++) {
+            String letter = String.valueOf((char) ('A' + random.nextInt(26)));
+            for (int i = 0; i < 10; i++) {
+                expected.add(letter);
+                letters.add(letter);
+            }
+        }
+
+        String joined = String.join("", expected);
+        assertEquals(expected, letters);
+        assertEquals(joined, letters.toLetterString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        letters.writeTo(out);
+        assertEquals(joined, out.toString());
+
+        // Any other list gets written one element at a time
+        out.reset();
+        LetterList.write(expected, out, 100, 20_000);
+        assertEquals(joined.substring(100, 20_000), out.toString());
+    }
+
+    @Test
+    void clearStartsOver() {
+        AppendOnlyLetterList letters = new AppendOnlyLetterList();
+        letters.appendLetters('A', 10);
+        letters.clear();
+        letters.appendLetters('B', 10);
+        assertEquals("BBBBBBBBBB", letters.toLetterString());
+    }
+}
@@ -0,0 +1,40 @@
+package edu.wctc.singleton.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChunkedLetterListTests {
+
+    // Nothing is written while restoring, so every chunk can be the same empty buffer
+    private static class UnbackedList extends ChunkedLetterList {
+        UnbackedList(int chunkSize) {
+            super(chunkSize);
+        }
+
+        @Override
+        protected ByteBuffer newChunk(int index, int chunkSize) {
+            return ByteBuffer.allocate(0);
+        }
+    }
+
+    @Test
+    void restoresTheLargestSizeAnIntCanIndex() {
+        UnbackedList list = new UnbackedList(1 << 30);
+        list.restoreSize(Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, list.size());
+        // 2 chunks hold 2^31 letters, more than an int can count
+        assertEquals(2, list.getChunkCount());
+    }
+
+    @Test
+    void rejectsSizesAnIntCantIndex() {
+        UnbackedList list = new UnbackedList(1 << 10);
+        assertThrows(IllegalArgumentException.class, () -> list.restoreSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> list.restoreSize(Integer.MAX_VALUE + 1L));
+        assertEquals(0, list.getChunkCount());
+    }
+}
@@ -0,0 +1,76 @@
+package edu.wctc.singleton.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectLetterListTests {
+
+    @Test
+    void behavesLikeAnArrayListAcrossChunkBoundaries() throws IOException {
+        List<String> expected = new ArrayList<>();
+        // Tiny chunks, so most requests' letters are split between two of them
+        DirectLetterList letters = new DirectLetterList(16);
+        Random random = new Random(42);
+
+        for (int request = 0; request < 1_000; request++) {
+            String letter = String.valueOf((char) ('A' + random.nextInt(26)));
+            for (int i = 0; i < 10; i++) {
+                expected.add(letter);
+            }
+            letters.appendLetters(letter.charAt(0), 10);
+        }
+
+        String joined = String.join("", expected);
+        assertEquals(expected, letters);
+        assertEquals(joined, letters.toLetterString());
+        assertEquals(10_000 / 16, letters.getChunkCount());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        letters.writeTo(out, 5, 9_999);
+        assertEquals(joined.substring(5, 9_999), out.toString());
+    }
+
+    @Test
+    void clearReusesTheChunks() {
+        DirectLetterList letters = new DirectLetterList(16);
+        letters.appendLetters('A', 40);
+        letters.clear();
+        letters.appendLetters('B', 20);
+
+        assertEquals("B".repeat(20), letters.toLetterString());
+        assertEquals(3, letters.getChunkCount());
+    }
+
+    @Test
+    void chunkSizeMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new DirectLetterList(1000));
+    }
+
+    @Test
+    void lettersDontGoOnTheHeap() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        DirectLetterList letters = new DirectLetterList();
+        letters.appendLetters('A', 10);
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int request = 0; request < 1_000_000; request++) {
+            letters.appendLetters((char) ('A' + request % 26), 10);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // 10 million letters; the heap only gets the ten ByteBuffer objects
+        assertTrue(allocated < 100_000, () -> allocated + " bytes allocated");
+    }
+}
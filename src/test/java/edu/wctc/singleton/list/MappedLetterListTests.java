@@ -0,0 +1,91 @@
+package edu.wctc.singleton.list;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedLetterListTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void lettersSurviveReopening() throws IOException {
+        Path file = dir.resolve("history.letters");
+        StringBuilder expected = new StringBuilder();
+        Random random = new Random(42);
+
+        try (MappedLetterList letters = new MappedLetterList(file, 1024, 0)) {
+            for (int request = 0; request < 1_000; request++) {
+                char letter = (char) ('A' + random.nextInt(26));
+                letters.appendLetters(letter, 10);
+                expected.append(String.valueOf(letter).repeat(10));
+            }
+        }
+
+        try (MappedLetterList letters = new MappedLetterList(file, 1024, 0)) {
+            assertEquals(10_000, letters.size());
+            assertEquals(expected.toString(), letters.toLetterString());
+
+            // And it carries on where it left off
+            letters.appendLetters('Z', 10);
+            expected.append("ZZZZZZZZZZ");
+        }
+
+        // A different chunk size reads the same file just as well
+        try (MappedLetterList letters = new MappedLetterList(file, 4096, 0)) {
+            assertEquals(expected.toString(), letters.toLetterString());
+        }
+    }
+
+    @Test
+    void clearIsRememberedToo() throws IOException {
+        Path file = dir.resolve("history.letters");
+        try (MappedLetterList letters = new MappedLetterList(file, 1024, 0)) {
+            letters.appendLetters('A', 100);
+            letters.clear();
+            letters.appendLetters('B', 10);
+        }
+        try (MappedLetterList letters = new MappedLetterList(file, 1024, 0)) {
+            assertEquals("BBBBBBBBBB", letters.toLetterString());
+        }
+    }
+
+    @Test
+    void refillingAfterAClearForcesTheRewrittenChunks() throws IOException {
+        Path file = dir.resolve("history.letters");
+        try (MappedLetterList letters = new MappedLetterList(file, 1024, 0)) {
+            letters.appendLetters('A', 3000);
+            letters.force();
+            assertEquals(Long.MAX_VALUE, letters.getDirtyFrom());
+
+            // Back to at least the length forced last time, so the length
+            // alone can't show that the first chunks were written again
+            letters.clear();
+            letters.appendLetters('B', 3500);
+            assertEquals(0, letters.getDirtyFrom());
+            letters.force();
+            assertEquals(Long.MAX_VALUE, letters.getDirtyFrom());
+
+            letters.appendLetters('C', 10);
+            assertEquals(3500, letters.getDirtyFrom());
+        }
+        try (MappedLetterList letters = new MappedLetterList(file, 1024, 0)) {
+            assertEquals("B".repeat(3500) + "C".repeat(10), letters.toLetterString());
+        }
+    }
+
+    @Test
+    void refusesFilesThatArentLetterFiles() throws IOException {
+        Path file = dir.resolve("not-letters.txt");
+        Files.writeString(file, "Hello, world! ".repeat(1_000));
+        assertThrows(IOException.class, () -> new MappedLetterList(file, 1024, 0));
+    }
+}
@@ -0,0 +1,116 @@
+package edu.wctc.singleton.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PersistentVectorTests {
+
+    @Test
+    void matchesAnArrayListThroughSeveralLevels() {
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        // 32^3 + 32 elements fit in three levels plus the tail; go past that
+        for (int i = 0; i < 100_000; i++) {
+            expected.add(i);
+            vector = vector.plus(i);
+        }
+
+        assertEquals(expected.size(), vector.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), vector.get(i));
+        }
+        assertEquals(expected, vector);
+        assertThrows(IndexOutOfBoundsException.class, () -> PersistentVector.empty().get(0));
+    }
+
+    @Test
+    void addingManyAtOnceMatchesAddingOneAtATime() {
+        PersistentVector<String> oneByOne = PersistentVector.empty();
+        PersistentVector<String> inRuns = PersistentVector.empty();
+        for (int run = 0; run < 3_000; run++) {
+            String letter = String.valueOf((char) ('A' + run % 26));
+            int count = run % 45;
+            for (int i = 0; i < count; i++) {
+                oneByOne = oneByOne.plus(letter);
+            }
+            inRuns = inRuns.plus(letter, count);
+        }
+        assertEquals(oneByOne, inRuns);
+    }
+
+    @Test
+    void olderVersionsNeverChange() {
+        List<PersistentVector<Integer>> versions = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 5_000; i++) {
+            versions.add(vector);
+            vector = vector.plus(i);
+        }
+
+        for (int size = 0; size < versions.size(); size += 97) {
+            PersistentVector<Integer> version = versions.get(size);
+            assertEquals(size, version.size());
+            for (int i = 0; i < size; i++) {
+                assertEquals(i, version.get(i));
+            }
+        }
+    }
+
+    @Test
+    void snapshotsSeeWholeRequestsOnly() throws Exception {
+        PersistentLetterList letters = new PersistentLetterList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                char letter = (char) ('A' + t);
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        letters.appendLetters(letter, 10);
+                        // Every snapshot is a whole number of 10-letter runs
+                        assertEquals(0, letters.snapshot().size() % 10);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String all = letters.toLetterString();
+        assertEquals(80_000, all.length());
+        for (int run = 0; run < all.length(); run += 10) {
+            assertEquals(String.valueOf(all.charAt(run)).repeat(10), all.substring(run, run + 10));
+        }
+    }
+
+    @Test
+    void aFrozenStateOutlivesAClear() throws Exception {
+        PersistentLetterList letters = new PersistentLetterList();
+        letters.appendLetters('Q', 20);
+        LetterList.Snapshot state = letters.freeze();
+
+        // What /v2 does while /v1/state is still sending
+        letters.clear();
+        letters.appendLetters('Z', 5);
+
+        assertEquals(20, state.size());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        state.writeTo(out, 10, 20);
+        assertEquals("Q".repeat(10), out.toString(StandardCharsets.ISO_8859_1));
+        assertEquals(letters.getVersion() - 2, state.version());
+    }
+}
@@ -0,0 +1,127 @@
+package edu.wctc.singleton.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunLengthLetterListTests {
+
+    @Test
+    void behavesLikeAnArrayListOfLetters() {
+        List<String> expected = new ArrayList<>();
+        RunLengthLetterList letters = new RunLengthLetterList();
+        Random random = new Random(42);
+
+        // version1's pattern: 10 of a random letter per request
+        for (int request = 0; request < 5_000; request++) {
+            String letter = String.valueOf((char) ('A' + random.nextInt(26)));
+            for (int i = 0; i < 10; i++) {
+                expected.add(letter);
+                letters.add(letter);
+            }
+        }
+
+        assertEquals(expected.size(), letters.size());
+        assertEquals(expected, letters);
+        assertEquals(String.join("", expected), letters.toLetterString());
+        assertEquals(String.join("", expected), String.join("", letters));
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(expected.get(i), letters.get(i));
+        }
+    }
+
+    @Test
+    void storesOneRunPerChangeOfLetter() {
+        RunLengthLetterList letters = new RunLengthLetterList();
+        letters.appendLetters('A', 10);
+        letters.appendLetters('A', 10);
+        letters.appendLetters('B', 10);
+
+        assertEquals(2, letters.getRunCount());
+        assertEquals("A".repeat(20) + "B".repeat(10), letters.toLetterString());
+
+        letters.clear();
+        assertEquals(0, letters.size());
+        assertEquals(0, letters.getRunCount());
+        assertEquals("", letters.toLetterString());
+    }
+
+    @Test
+    void rejectsAnythingButSingleLatin1Letters() {
+        RunLengthLetterList letters = new RunLengthLetterList();
+        assertThrows(IllegalArgumentException.class, () -> letters.add("AB"));
+        assertThrows(IllegalArgumentException.class, () -> letters.add("Ā"));
+        assertThrows(IndexOutOfBoundsException.class, () -> letters.get(0));
+    }
+
+    @Test
+    void iteratorsFailFastLikeArrayList() {
+        RunLengthLetterList letters = new RunLengthLetterList();
+        letters.appendLetters('A', 10);
+        Iterator<String> iterator = letters.iterator();
+        iterator.next();
+        letters.add("B");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void writesTheSameBytesAsTheJoinedString() throws IOException {
+        RunLengthLetterList letters = new RunLengthLetterList();
+        Random random = new Random(7);
+        for (int request = 0; request < 2_000; request++) {
+            letters.appendLetters((char) ('A' + random.nextInt(26)), 10);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        letters.writeTo(out, 345, 12_345);
+        assertEquals(letters.toLetterString().substring(345, 12_345), out.toString());
+    }
+
+    @Test
+    void writingTakesTheSameMemoryForAnyLength() throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        RunLengthLetterList letters = new RunLengthLetterList();
+        for (int request = 0; request < 1_000_000; request++) {
+            letters.appendLetters((char) ('A' + request % 26), 10);
+        }
+        OutputStream out = OutputStream.nullOutputStream();
+        letters.writeTo(out);
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        letters.writeTo(out);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // 10 million letters, written with one 8 KB chunk
+        assertTrue(allocated < 4 * LetterList.CHUNK_SIZE, () -> allocated + " bytes allocated");
+    }
+
+    @Test
+    void versionKeepsRisingPastTheIntRange() throws Exception {
+        RunLengthLetterList list = new RunLengthLetterList();
+        // 2^31 real changes would take far too long, so start just short of it
+        Field version = LetterList.class.getDeclaredField("version");
+        version.setAccessible(true);
+        version.setLong(list, Integer.MAX_VALUE);
+
+        long before = list.getVersion();
+        list.appendLetters('Q', 10);
+        list.clear();
+        assertEquals(before + 2, list.getVersion());
+        assertTrue(list.getVersion() > Integer.MAX_VALUE);
+    }
+}
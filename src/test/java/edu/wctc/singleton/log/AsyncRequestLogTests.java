@@ -0,0 +1,142 @@
+package edu.wctc.singleton.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncRequestLogTests {
+
+    @Test
+    void everyLineFromEveryThreadIsWritten() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (AsyncRequestLog log = new AsyncRequestLog(out, 1 << 16, 1.0, 200)) {
+            List<Future<?>> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int id = t;
+                threads.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        log.log(id, "line " + i);
+                    }
+                }));
+            }
+            for (Future<?> thread : threads) {
+                thread.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(8_000, lines.length);
+        // Each thread's lines come out in the order it logged them
+        int[] next = new int[8];
+        for (String line : lines) {
+            String[] parts = line.split(": line ");
+            int id = Integer.parseInt(parts[0]);
+            assertEquals(next[id]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    void longMessagesAreCutShort() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AsyncRequestLog log = new AsyncRequestLog(out, 16, 1.0, 20)) {
+            log.log(7, "A".repeat(1_000_000));
+        }
+        assertEquals("7: " + "A".repeat(20) + "... (999980 more)" + System.lineSeparator(), out.toString());
+    }
+
+    @Test
+    void queuedMessagesAreAlreadyCutShort() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream stuck = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.write(b, off, len);
+            }
+        };
+        try (AsyncRequestLog log = new AsyncRequestLog(stuck, 8, 1.0, 20)) {
+            // The writer takes the first line, then gets stuck writing it
+            log.log(1, "first");
+            Thread.sleep(100);
+            String message = "B".repeat(1_000_000);
+            WeakReference<String> queued = new WeakReference<>(message);
+            log.log(2, message);
+            message = null;
+
+            // Only the first 20 letters wait in the buffer, so the whole message can go
+            for (int i = 0; i < 50 && queued.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertNull(queued.get());
+            release.countDown();
+        }
+        assertTrue(written.toString().endsWith(
+                "2: " + "B".repeat(20) + "... (999980 more)" + System.lineSeparator()));
+    }
+
+    @Test
+    void aFullBufferDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream stuck = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        try (AsyncRequestLog log = new AsyncRequestLog(stuck, 8, 1.0, 200)) {
+            // The writer takes the first line, then gets stuck writing it
+            log.log(1, "first");
+            Thread.sleep(100);
+            for (int i = 0; i < 100; i++) {
+                log.log(1, "more");
+            }
+            assertEquals(100 - 8, log.getDropped());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void samplingKeepsAboutTheRightShare() {
+        try (AsyncRequestLog log = new AsyncRequestLog(OutputStream.nullOutputStream(), 1 << 16, 0.1, 200)) {
+            for (int i = 0; i < 10_000; i++) {
+                log.log(1, "line");
+            }
+            long skipped = log.getSkipped();
+            assertTrue(skipped > 8_500 && skipped < 9_500, () -> skipped + " of 10000 skipped");
+        }
+    }
+}
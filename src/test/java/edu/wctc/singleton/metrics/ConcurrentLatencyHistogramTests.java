@@ -0,0 +1,57 @@
+package edu.wctc.singleton.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrentLatencyHistogramTests {
+
+    @Test
+    void matchesAPlainHistogramWhenShared() throws Exception {
+        ConcurrentLatencyHistogram shared = new ConcurrentLatencyHistogram();
+        LatencyHistogram expected = new LatencyHistogram();
+        for (int t = 0; t < 8; t++) {
+            for (long value = 1; value <= 10_000; value++) {
+                expected.record(value * 1000 + t);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                threads.add(executor.submit(() -> {
+                    for (long value = 1; value <= 10_000; value++) {
+                        shared.record(value * 1000 + thread);
+                    }
+                }));
+            }
+            for (Future<?> thread : threads) {
+                thread.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LatencyHistogram copy = new LatencyHistogram();
+        shared.copyInto(copy);
+        assertEquals(expected.getTotalCount(), copy.getTotalCount());
+        assertEquals(expected.getMaxValue(), copy.getMaxValue());
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9, 100}) {
+            assertEquals(expected.getValueAtPercentile(percentile), copy.getValueAtPercentile(percentile));
+        }
+
+        shared.reset();
+        LatencyHistogram empty = new LatencyHistogram();
+        shared.copyInto(empty);
+        assertEquals(0, empty.getTotalCount());
+    }
+}
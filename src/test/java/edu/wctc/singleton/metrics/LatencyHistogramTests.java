@@ -0,0 +1,53 @@
+package edu.wctc.singleton.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    @Test
+    void bucketsCoverEveryValueInOrder() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long highest = LatencyHistogram.highestValueInBucket(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(highest));
+            assertEquals(i + 1 == LatencyHistogram.BUCKET_COUNT ? i : i + 1,
+                    LatencyHistogram.bucketIndex(Math.min(highest + 1, LatencyHistogram.HIGHEST_TRACKABLE_VALUE)));
+        }
+    }
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(100_000, histogram.getTotalCount());
+        assertEquals(100_000_000, histogram.getMaxValue());
+        assertWithinBucketPrecision(50_000_000, histogram.getValueAtPercentile(50));
+        assertWithinBucketPrecision(99_000_000, histogram.getValueAtPercentile(99));
+        assertWithinBucketPrecision(99_900_000, histogram.getValueAtPercentile(99.9));
+    }
+
+    @Test
+    void addMergesCountsAndMax() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(5_000);
+        second.record(-3);
+
+        first.add(second);
+
+        assertEquals(3, first.getTotalCount());
+        assertEquals(5_000, first.getMaxValue());
+        assertEquals(0, first.getValueAtPercentile(10));
+    }
+
+    private static void assertWithinBucketPrecision(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 50,
+                () -> "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,73 @@
+package edu.wctc.singleton.spammer;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTests {
+    private static final URI ENDPOINT = URI.create("http://localhost:8080/v2");
+
+    // Hands out whatever the test wants each request's future to be
+    private static class FakeTransport implements Transport {
+        private final List<CompletableFuture<Response>> sent = new ArrayList<>();
+        private Supplier<CompletableFuture<Response>> next;
+
+        @Override
+        public CompletableFuture<Response> get(URI uri) {
+            CompletableFuture<Response> future = next.get();
+            sent.add(future);
+            return future;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void givingUpOnARunReturnsItsPermits() throws InterruptedException {
+        FakeTransport transport = new FakeTransport();
+        LoadGenerator generator = new LoadGenerator(transport, 0, 2);
+
+        // Neither request ever gets an answer
+        transport.next = CompletableFuture::new;
+        RunRecorder stuck = new RunRecorder("/v2", false);
+        LoadGenerator.Result result = generator.run(ENDPOINT, 2, Duration.ZERO, Duration.ofMillis(50), stuck);
+        assertEquals(new LoadGenerator.Result(2, 2), result);
+        assertTrue(transport.sent.stream().allMatch(CompletableFuture::isCancelled));
+        assertEquals(0, stuck.report(result.incomplete()).requests());
+
+        // Both permits are back, so the next run isn't stuck behind them
+        transport.next = () -> CompletableFuture.completedFuture(
+                new Response(200, 10, true, null, Map.of()));
+        RunRecorder recorder = new RunRecorder("/v2", false);
+        result = generator.run(ENDPOINT, 4, Duration.ZERO, Duration.ofSeconds(5), recorder);
+        assertEquals(new LoadGenerator.Result(4, 0), result);
+        assertEquals(4, recorder.report(0).categories().get(ResponseCategory.CORRECT));
+    }
+
+    @Test
+    void timeoutsAreCountedAsErrors() throws InterruptedException {
+        FakeTransport transport = new FakeTransport();
+        transport.next = () -> CompletableFuture.failedFuture(
+                new CompletionException(new HttpTimeoutException("request timed out")));
+        RunRecorder recorder = new RunRecorder("/v2", false);
+        new LoadGenerator(transport, 0, 2).run(ENDPOINT, 3, Duration.ZERO, Duration.ofSeconds(5), recorder);
+
+        RunReport report = recorder.report(0);
+        assertEquals(3, report.categories().get(ResponseCategory.TIMEOUT));
+        assertEquals(0, report.categories().get(ResponseCategory.TRANSPORT_ERROR));
+        assertEquals(3, report.errors());
+    }
+}
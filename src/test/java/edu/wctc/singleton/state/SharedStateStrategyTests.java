@@ -0,0 +1,48 @@
+package edu.wctc.singleton.state;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SharedStateStrategyTests {
+
+    // The strategies that are supposed to be correct no matter what
+    static List<SharedStateStrategy> safeStrategies() {
+        return List.of(new SynchronizedStrategy(), new ReentrantLockStrategy(), new FairLockStrategy(), new StampedLockStrategy(),
+                new ThreadLocalStrategy(), new RequestLocalStrategy());
+    }
+
+    @ParameterizedTest
+    @MethodSource("safeStrategies")
+    void alwaysReturnsTenOfTheSameLetter(SharedStateStrategy strategy) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger wrong = new AtomicInteger();
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int t = 0; t < futures.length; t++) {
+                String letter = String.valueOf((char) ('A' + t));
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        if (!strategy.fill(letter, 10, 0).equals(letter.repeat(10))) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, wrong.get(), strategy.getName());
+    }
+}
@@ -0,0 +1,62 @@
+package edu.wctc.singleton.stats;
+
+import edu.wctc.singleton.spammer.ResponseCategory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RaceAnomaliesTests {
+    private final StatsClock clock = new StatsClock();
+    private final RaceAnomalies anomalies = new RaceAnomalies(clock);
+
+    @AfterEach
+    void stopClock() {
+        clock.close();
+    }
+
+    @Test
+    void judgesResponsesTheWayRequestSpammerDoes() {
+        assertEquals(ResponseCategory.CORRECT, anomalies.check("/v3", "QQQQQQQQQQ"));
+        assertEquals(ResponseCategory.WRONG_LENGTH, anomalies.check("/v3", "QQQQQQQQQQQQQQQQQQQQ"));
+        assertEquals(ResponseCategory.WRONG_LENGTH, anomalies.check("/v3", ""));
+        assertEquals(ResponseCategory.MIXED_LETTERS, anomalies.check("/v3", "QQQQQZZZZZ"));
+
+        RaceAnomalies.Snapshot snapshot = anomalies.snapshot().get("/v3");
+        assertEquals(4, snapshot.requests());
+        assertEquals(2, snapshot.anomalies().get(RaceAnomalies.Kind.WRONG_LENGTH));
+        assertEquals(1, snapshot.anomalies().get(RaceAnomalies.Kind.MIXED_LETTERS));
+        assertEquals(3, snapshot.totalAnomalies());
+    }
+
+    @Test
+    void countsRaceExceptionsByType() {
+        assertEquals(RaceAnomalies.Kind.CONCURRENT_MODIFICATION,
+                anomalies.failed("/v2", new ConcurrentModificationException()));
+        assertEquals(RaceAnomalies.Kind.INDEX_OUT_OF_BOUNDS,
+                anomalies.failed("/v2", new ArrayIndexOutOfBoundsException(10)));
+        assertNull(anomalies.failed("/v2", new IllegalStateException()));
+
+        RaceAnomalies.Snapshot snapshot = anomalies.snapshot().get("/v2");
+        assertEquals(3, snapshot.requests());
+        assertEquals(2, snapshot.totalAnomalies());
+    }
+
+    @Test
+    void ratesCountOnlyFinishedSeconds() {
+        RollingCounter counter = new RollingCounter();
+        for (long second = 0; second < 100; second++) {
+            counter.tick(second - 1);
+            for (int i = 0; i < second % 2 * 4; i++) {
+                counter.increment(second);
+            }
+        }
+        // Odd seconds had 4, even ones none; second 99 is still going
+        counter.increment(99);
+        assertEquals(2.0, counter.perSecond(99, 10));
+        assertEquals(2.0, counter.perSecond(99, 60));
+    }
+}
@@ -0,0 +1,54 @@
+package edu.wctc.singleton.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RollingHistogramTests {
+
+    @Test
+    void windowsOnlySeeRecentSeconds() {
+        RollingHistogram histogram = new RollingHistogram();
+        // One value per second for two minutes, ticking at the start of
+        // each second as StatsClock does
+        for (long second = 0; second < 120; second++) {
+            histogram.tick(second);
+            histogram.record(second, second);
+        }
+        long now = 119;
+
+        assertEquals(10, histogram.lastSeconds(now, 10).getTotalCount());
+        // Without the ticks every slice would hold two values, one from each minute
+        assertEquals(60, histogram.lastSeconds(now, 60).getTotalCount());
+        assertEquals(119, histogram.lastSeconds(now, 60).getMaxValue());
+    }
+
+    @Test
+    void tickClearsTheNextSecondBeforeItStarts() {
+        RollingHistogram histogram = new RollingHistogram();
+        histogram.record(1, 5);
+        // Just over a minute later the same slice comes around again
+        histogram.tick(61);
+        histogram.record(62, 7);
+        assertEquals(1, histogram.lastSeconds(62, 1).getTotalCount());
+        assertEquals(7, histogram.lastSeconds(62, 1).getMaxValue());
+        assertEquals(1, histogram.lastSeconds(62, RollingHistogram.SECONDS).getTotalCount());
+    }
+
+    @Test
+    void minuteWindowStillHoldsASampleFrom59SecondsAgo() {
+        RollingHistogram histogram = new RollingHistogram();
+        histogram.tick(0);
+        histogram.record(0, 5);
+        // Into second 59; its tick has already cleared the slot for second 60
+        for (long second = 1; second <= 59; second++) {
+            histogram.tick(second);
+        }
+        assertEquals(1, histogram.lastSeconds(59, RollingHistogram.SECONDS).getTotalCount());
+        assertEquals(0, histogram.lastSeconds(59, 59).getTotalCount());
+
+        // A whole minute on, it's gone
+        histogram.tick(60);
+        assertEquals(0, histogram.lastSeconds(60, RollingHistogram.SECONDS).getTotalCount());
+    }
+}
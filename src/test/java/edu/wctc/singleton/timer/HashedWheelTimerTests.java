@@ -0,0 +1,77 @@
+package edu.wctc.singleton.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedWheelTimerTests {
+
+    @Test
+    void tasksNeverRunEarly() throws InterruptedException {
+        try (HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 16)) {
+            int tasks = 200;
+            CountDownLatch done = new CountDownLatch(tasks);
+            AtomicLong early = new AtomicLong();
+
+            for (int i = 0; i < tasks; i++) {
+                // Delays up to 100 ms wrap around the 16-bucket wheel several times
+                long delayMillis = i % 100;
+                long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+                timer.schedule(() -> {
+                    if (System.nanoTime() < due) {
+                        early.incrementAndGet();
+                    }
+                    done.countDown();
+                }, delayMillis, TimeUnit.MILLISECONDS);
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(0, early.get());
+        }
+    }
+
+    @Test
+    void afterCompletesFuture() throws Exception {
+        try (HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8)) {
+            long start = System.nanoTime();
+            timer.after(20, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        }
+    }
+
+    @Test
+    void closeCancelsFuturesThatHaveNotFired() {
+        HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // Some of these will have made it into the wheel by the time it
+        // closes, some will still be waiting to be moved there
+        for (int i = 0; i < 1000; i++) {
+            futures.add(timer.after(1, TimeUnit.HOURS));
+        }
+        timer.close();
+
+        for (CompletableFuture<Void> future : futures) {
+            assertTrue(future.isCancelled());
+        }
+        assertThrows(IllegalStateException.class, () -> timer.after(1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void keepsTickingAfterATaskThrowsAnError() throws Exception {
+        try (HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8)) {
+            timer.schedule(() -> {
+                throw new AssertionError("not a RuntimeException");
+            }, 1, TimeUnit.MILLISECONDS);
+            timer.after(5, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package edu.wctc.singleton.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduledExecutorDelaySchedulerTests {
+
+    @Test
+    void threadDoesntComeFromTheFirstCaller() throws Exception {
+        Thread scheduler;
+        try (ScheduledExecutorDelayScheduler delays = new ScheduledExecutorDelayScheduler();
+             URLClassLoader webapp = new URLClassLoader(new URL[0])) {
+            assertTrue(Thread.getAllStackTraces().keySet().stream()
+                    .anyMatch(t -> t.getName().equals("delay-scheduler")));
+
+            // The first wait asked for by something like a Tomcat request thread
+            CompletableFuture<Thread> ran = new CompletableFuture<>();
+            Thread request = new Thread(() -> delays.schedule(
+                    () -> ran.complete(Thread.currentThread()), 1, TimeUnit.MILLISECONDS));
+            request.setContextClassLoader(webapp);
+            request.start();
+            request.join();
+
+            scheduler = ran.get(5, TimeUnit.SECONDS);
+            assertEquals("delay-scheduler", scheduler.getName());
+            assertEquals(ScheduledExecutorDelayScheduler.class.getClassLoader(), scheduler.getContextClassLoader());
+        }
+        assertFalse(scheduler.isAlive());
+    }
+}
@@ -0,0 +1,116 @@
+package edu.wctc.singleton.timing;
+
+import edu.wctc.singleton.log.RequestLog;
+import edu.wctc.singleton.timer.ScheduledExecutorDelayScheduler;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhaseEventTests {
+
+    @Test
+    void recordsEachPhaseWithItsRequest(@TempDir Path dir) throws Exception {
+        List<String> log = new ArrayList<>();
+        List<String> list = new TimedList(new ArrayList<>());
+        TimedRequestLog requestLog = new TimedRequestLog((id, message) -> log.add(message));
+        TimedDelayScheduler scheduler = new TimedDelayScheduler(new ScheduledExecutorDelayScheduler());
+        Path file = dir.resolve("phases.jfr");
+
+        try (Recording recording = new Recording(); scheduler) {
+            recording.enable(MutationEvent.class);
+            recording.enable(SleepEvent.class);
+            recording.enable(BuildOutputEvent.class);
+            recording.enable(ResponseLogEvent.class);
+            recording.start();
+
+            // What version3Async does
+            RequestTiming timing = new RequestTiming("/v3/async", System.nanoTime());
+            RequestTiming previous = RequestTiming.bind(timing);
+            try {
+                list.clear();
+                for (int i = 0; i < 10; i++) {
+                    list.add("Q");
+                }
+                scheduler.after(10, TimeUnit.MILLISECONDS).thenAccept(ignored -> {
+                    String output = String.join("", list);
+                    requestLog.log(0, output);
+                }).get(10, TimeUnit.SECONDS);
+            } finally {
+                RequestTiming.bind(previous);
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertEquals(List.of("QQQQQQQQQQ"), log);
+        List<RecordedEvent> events = new ArrayList<>(RecordingFile.readAllEvents(file));
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        // The clear and the 10 adds are one run, so one event
+        assertEquals(List.of("edu.wctc.singleton.Mutation", "edu.wctc.singleton.Sleep",
+                        "edu.wctc.singleton.BuildOutput", "edu.wctc.singleton.ResponseLog"),
+                events.stream().map(e -> e.getEventType().getName()).toList());
+        for (RecordedEvent event : events) {
+            assertEquals("/v3/async", event.getString("endpoint"));
+            assertEquals(Thread.currentThread().getName(), event.getThread("requestThread").getJavaName());
+            assertTrue(event.getDuration().toNanos() >= 0);
+        }
+        assertEquals(10, events.get(0).getInt("listSize"));
+        assertEquals(-1, events.get(1).getInt("listSize"));
+        assertTrue(events.get(1).getDuration().toMillis() >= 10);
+        assertEquals(10, events.get(2).getInt("listSize"));
+        assertEquals(-1, events.get(3).getInt("listSize"));
+    }
+
+    @Test
+    void recordsTheSynchronousPhasesToo(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("v4.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(MutationEvent.class);
+            recording.enable(SleepEvent.class);
+            recording.enable(BuildOutputEvent.class);
+            recording.start();
+
+            // What version4 does
+            RequestTiming timing = new RequestTiming("/v4", System.nanoTime());
+            RequestTiming previous = RequestTiming.bind(timing);
+            try {
+                List<String> list = RequestPhases.local(new ArrayList<>());
+                for (int i = 0; i < 10; i++) {
+                    list.add("Q");
+                }
+                RequestPhases.sleep(10, list);
+                assertEquals("QQQQQQQQQQ", String.join("", list));
+            } finally {
+                RequestTiming.bind(previous);
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = new ArrayList<>(RecordingFile.readAllEvents(file));
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        assertEquals(List.of("edu.wctc.singleton.Mutation", "edu.wctc.singleton.Sleep",
+                        "edu.wctc.singleton.BuildOutput"),
+                events.stream().map(e -> e.getEventType().getName()).toList());
+        for (RecordedEvent event : events) {
+            assertEquals("/v4", event.getString("endpoint"));
+            assertEquals(10, event.getInt("listSize"));
+            assertEquals(Thread.currentThread().getName(), event.getThread("requestThread").getJavaName());
+        }
+        assertTrue(events.get(1).getDuration().toMillis() >= 10);
+    }
+}
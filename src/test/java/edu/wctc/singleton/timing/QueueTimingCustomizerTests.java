@@ -0,0 +1,52 @@
+package edu.wctc.singleton.timing;
+
+import edu.wctc.singleton.SingletonApplication;
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueueTimingCustomizerTests {
+
+    @Test
+    void workerPoolStopsWithTheServer() throws Exception {
+        List<Thread> workers;
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(SingletonApplication.class)
+                        .run("--server.port=0", "--spring.devtools.restart.enabled=false")) {
+            TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/v4/async")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue(RequestTiming.HEADER).orElse("").startsWith("queue;dur="));
+
+            ProtocolHandler handler = server.getTomcat().getConnector().getProtocolHandler();
+            QueueTimingExecutor executor = assertInstanceOf(QueueTimingExecutor.class, handler.getExecutor());
+            assertTrue(executor.getPoolSize() > 0);
+
+            // Named as Tomcat would, not after the configured port 0
+            workers = Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().startsWith("http-nio-auto-") && t.getName().contains("-exec-"))
+                    .toList();
+            assertFalse(workers.isEmpty());
+        }
+
+        for (Thread worker : workers) {
+            worker.join(10_000);
+            assertFalse(worker.isAlive(), worker.getName());
+        }
+    }
+}
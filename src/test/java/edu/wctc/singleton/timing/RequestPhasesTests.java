@@ -0,0 +1,48 @@
+package edu.wctc.singleton.timing;
+
+import edu.wctc.singleton.spammer.ServerTiming;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestPhasesTests {
+
+    @Test
+    void version4GetsEveryPhase() {
+        RequestTiming timing = new RequestTiming("/v4", System.nanoTime());
+        RequestTiming previous = RequestTiming.bind(timing);
+        String output;
+        try {
+            // What version4 does, with a shorter sleep
+            List<String> list = RequestPhases.local(new ArrayList<>());
+            String letter = RequestPhases.letter(() -> "Q");
+            for (int i = 0; i < 10; i++) {
+                list.add(letter);
+            }
+            RequestPhases.sleep(20, list);
+            output = String.join("", list);
+        } finally {
+            RequestTiming.bind(previous);
+        }
+
+        assertEquals("QQQQQQQQQQ", output);
+        Map<String, Long> parsed = ServerTiming.parse(timing.toHeader(System.nanoTime()));
+        assertEquals(List.of("letter", "fill", "sleep", "build", "total"), List.copyOf(parsed.keySet()));
+        assertTrue(parsed.get("sleep") >= TimeUnit.MILLISECONDS.toNanos(20), parsed.toString());
+        assertTrue(parsed.get("fill") < TimeUnit.MILLISECONDS.toNanos(20), parsed.toString());
+    }
+
+    @Test
+    void justDoesTheWorkOutsideARequest() {
+        assertNull(RequestTiming.current());
+        assertEquals("A", RequestPhases.letter(() -> "A"));
+        RequestPhases.sleep(1, null);
+    }
+}
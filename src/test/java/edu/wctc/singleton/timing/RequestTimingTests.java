@@ -0,0 +1,98 @@
+package edu.wctc.singleton.timing;
+
+import edu.wctc.singleton.spammer.ServerTiming;
+import edu.wctc.singleton.timer.DelayScheduler;
+import edu.wctc.singleton.timer.ScheduledExecutorDelayScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTimingTests {
+
+    @Test
+    void headerListsPhasesInOrderThenTotal() {
+        RequestTiming timing = new RequestTiming("/v4/async", 0);
+        timing.add(Phase.SLEEP, 500_000_000);
+        timing.add(Phase.LOG, 4_000);
+        timing.add(Phase.LOG, 1_000);
+        timing.add(Phase.QUEUE, 120_000);
+
+        String header = timing.toHeader(500_310_000);
+        assertEquals("queue;dur=0.120, sleep;dur=500.000, log;dur=0.005, total;dur=500.310", header);
+
+        // What RequestSpammer makes of it
+        Map<String, Long> parsed = ServerTiming.parse(header);
+        assertEquals(List.of("queue", "sleep", "log", "total"), List.copyOf(parsed.keySet()));
+        assertEquals(500_310_000L, parsed.get("total"));
+    }
+
+    @Test
+    void timesOnlyWhenThereIsACurrentRequest() {
+        List<String> list = new TimedList(new ArrayList<>());
+        assertNull(RequestTiming.current());
+        list.add("A");
+        assertEquals("A", String.join("", list));
+
+        RequestTiming timing = new RequestTiming("/v1", System.nanoTime());
+        RequestTiming previous = RequestTiming.bind(timing);
+        try {
+            list.add("A");
+            assertEquals("AA", String.join("", list));
+        } finally {
+            RequestTiming.bind(previous);
+        }
+        assertNull(RequestTiming.current());
+        assertEquals(List.of("fill", "build", "total"),
+                List.copyOf(ServerTiming.parse(timing.toHeader(System.nanoTime())).keySet()));
+    }
+
+    @Test
+    void fillingIsOneRunThatStopsAtTheLastChange() throws Exception {
+        List<String> list = new TimedList(new ArrayList<>());
+        RequestTiming timing = new RequestTiming("/v3", System.nanoTime());
+        RequestTiming previous = RequestTiming.bind(timing);
+        try {
+            list.clear();
+            for (int i = 0; i < 10; i++) {
+                list.add("Q");
+            }
+            // version3's sleep isn't part of the fill
+            Thread.sleep(50);
+        } finally {
+            RequestTiming.bind(previous);
+        }
+        Map<String, Long> parsed = ServerTiming.parse(timing.toHeader(System.nanoTime()));
+        assertTrue(parsed.get("fill") < TimeUnit.MILLISECONDS.toNanos(40), parsed.toString());
+        assertTrue(parsed.get("total") >= TimeUnit.MILLISECONDS.toNanos(50), parsed.toString());
+    }
+
+    @Test
+    void scheduledTasksRunWithTheRequestsTiming() throws Exception {
+        DelayScheduler scheduler = new TimedDelayScheduler(new ScheduledExecutorDelayScheduler());
+        RequestTiming timing = new RequestTiming("/v3/async", System.nanoTime());
+        RequestTiming previous = RequestTiming.bind(timing);
+        CompletableFuture<RequestTiming> seen;
+        try {
+            seen = scheduler.after(20, TimeUnit.MILLISECONDS).thenApply(ignored -> RequestTiming.current());
+        } finally {
+            RequestTiming.bind(previous);
+        }
+        assertEquals(timing, seen.get(10, TimeUnit.SECONDS));
+        ((AutoCloseable) scheduler).close();
+        assertTrue(ServerTiming.parse(timing.toHeader(System.nanoTime())).get("sleep") >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void skipsEntriesWithoutADuration() {
+        Map<String, Long> parsed = ServerTiming.parse("cache;desc=\"hit\", db;dur=abc, app;dur=1.5;desc=x, app;dur=9");
+        assertEquals(Map.of("app", 1_500_000L), parsed);
+    }
+}
@@ -0,0 +1,144 @@
+package edu.wctc.singleton.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteAheadLogTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentAppendsAreBatchedAndAllDurable() throws Exception {
+        Path file = dir.resolve("test.wal");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (WriteAheadLog log = new WriteAheadLog(file, 64, 2, TimeUnit.MILLISECONDS)) {
+            List<Future<?>> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                threads.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        log.append((thread + ":" + i).getBytes(StandardCharsets.US_ASCII)).join();
+                    }
+                }));
+            }
+            for (Future<?> thread : threads) {
+                thread.get(60, TimeUnit.SECONDS);
+            }
+
+            WalStats stats = log.getStats();
+            assertEquals(800, stats.records());
+            assertTrue(stats.batches() < 800, () -> stats.batches() + " batches for 800 records");
+            assertTrue(stats.batchSizes().getMaxValue() <= 64);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Set<String> records = new HashSet<>();
+        for (byte[] record : WriteAheadLog.readAll(file)) {
+            records.add(new String(record, StandardCharsets.US_ASCII));
+        }
+        assertEquals(800, records.size());
+        assertTrue(records.contains("7:99"));
+    }
+
+    @Test
+    void sequenceNumbersFollowAppendOrder() throws Exception {
+        try (WriteAheadLog log = new WriteAheadLog(dir.resolve("test.wal"), 16, 0, TimeUnit.MILLISECONDS)) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(log.append(new byte[]{(byte) i}));
+            }
+            for (int i = 0; i < 50; i++) {
+                assertEquals(i, futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void aTornLastRecordIsIgnored() throws IOException {
+        Path file = dir.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file, 16, 0, TimeUnit.MILLISECONDS)) {
+            log.append("first".getBytes(StandardCharsets.US_ASCII)).join();
+            log.append("second".getBytes(StandardCharsets.US_ASCII)).join();
+        }
+        // Half of a third record: a length and part of a checksum
+        Files.write(file, new byte[]{0, 0, 0, 5, 1, 2}, StandardOpenOption.APPEND);
+
+        List<byte[]> records = WriteAheadLog.readAll(file);
+        assertEquals(2, records.size());
+        assertEquals("second", new String(records.get(1), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void reopeningCutsOffATornRecordBeforeAppending() throws IOException {
+        Path file = dir.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file, 16, 0, TimeUnit.MILLISECONDS)) {
+            log.append("first".getBytes(StandardCharsets.US_ASCII)).join();
+        }
+        Files.write(file, new byte[]{0, 0, 0, 5, 1, 2}, StandardOpenOption.APPEND);
+
+        try (WriteAheadLog log = new WriteAheadLog(file, 16, 0, TimeUnit.MILLISECONDS)) {
+            log.append("second".getBytes(StandardCharsets.US_ASCII)).join();
+            log.append("third".getBytes(StandardCharsets.US_ASCII)).join();
+        }
+
+        List<String> records = new ArrayList<>();
+        for (byte[] record : WriteAheadLog.readAll(file)) {
+            records.add(new String(record, StandardCharsets.US_ASCII));
+        }
+        assertEquals(List.of("first", "second", "third"), records);
+    }
+
+    @Test
+    void appendsRacingCloseNeverHang() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 20; round++) {
+                WriteAheadLog log = new WriteAheadLog(dir.resolve("race" + round + ".wal"), 16, 0,
+                        TimeUnit.MILLISECONDS);
+                List<Future<List<CompletableFuture<Long>>>> threads = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    threads.add(executor.submit(() -> {
+                        List<CompletableFuture<Long>> futures = new ArrayList<>();
+                        try {
+                            for (int i = 0; i < 1000; i++) {
+                                futures.add(log.append(new byte[]{1}));
+                            }
+                        } catch (IllegalStateException e) {
+                            // Closed before this thread finished; expected
+                        }
+                        return futures;
+                    }));
+                }
+                log.close();
+                for (Future<List<CompletableFuture<Long>>> thread : threads) {
+                    for (CompletableFuture<Long> future : thread.get(10, TimeUnit.SECONDS)) {
+                        // Written or failed, but never left waiting
+                        assertTrue(future.handle((sequence, error) -> true).get(10, TimeUnit.SECONDS));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}